@@ -0,0 +1,276 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * ActiveField.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+import java.awt.Canvas;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Toolkit;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ActiveField shows the {@link MineField} on a <code>Canvas</code> drawn by its own render thread through a
+ * {@link BufferStrategy}, instead of waiting for Swing to coalesce <code>repaint()</code> requests<br>
+ * - the thread wakes at a steady {@link #FRAME_RATE} and, if anything was repainted since the last frame, pulls the
+ * changed <code>Squares</code> into the {@link FieldBuffer} and copies the visible part of the field to the screen, so any
+ * number of moves between two frames costs one frame<br>
+ * - the canvas is the size of the visible area and scrolls by moving its origin over the field: the origin is kept
+ * inside the field whenever the canvas, the field or the <code>Square</code> size changes<br>
+ * - mouse events are passed on to the <code>MineField</code> at field co-ordinates - presses and releases only while it
+ * is taking moves
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineField
+ */
+class ActiveField extends Canvas implements Runnable, MouseListener, MouseWheelListener {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+
+    /** Keep the compiler from complaining... */
+    private static final long serialVersionUID = 4629207617341809518L;
+    //@formatter:off
+    /** frames per second drawn while there are changes */
+    static final int FRAME_RATE = 120;
+    /** nanoseconds between frames */
+    static final long FRAME_NANOS = 1000000000L / FRAME_RATE;
+
+    /** number of <code>Squares</code> scrolled by each click of the mouse wheel */
+    static final int WHEEL_SQUARES = 3;
+
+    /** the field being shown */
+    private final MineField field;
+
+    /** position of the upper left corner of the canvas in the field, in pixels - always inside the field */
+    private volatile int originX, originY;
+
+    /** set whenever the field or the canvas needs drawing again - cleared by the render thread */
+    private volatile boolean dirty = true;
+
+    /** the render thread runs while this is set */
+    private volatile boolean running;
+
+    /** the render thread */
+    private Thread renderer;
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * CONSTRUCTOR
+     * @param view - the {@link MineField} to show
+     */
+    ActiveField(final MineField view) {
+        field = view;
+        setBackground( MineSwinger.COLOR_GAME_BKGRND );
+        addMouseListener( this );
+        addMouseWheelListener( this );
+    }
+
+    /** create the buffers and start the render thread once the canvas is on screen */
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        createBufferStrategy( 2 );
+
+        running = true;
+        renderer = new Thread( this, "MineSwinger-render" );
+        renderer.setDaemon( true );
+        renderer.start();
+    }
+
+    /** stop the render thread before the canvas leaves the screen */
+    @Override
+    public void removeNotify() {
+        running = false;
+        if( renderer != null ) renderer.interrupt();
+        renderer = null;
+        super.removeNotify();
+    }
+
+    /** the canvas was exposed or resized: draw it on the next frame */
+    @Override
+    public void paint(final Graphics page) {
+        setDirty();
+    }
+
+    /** @see #paint(Graphics) */
+    @Override
+    public void update(final Graphics page) {
+        setDirty();
+    }
+
+    /** the canvas was moved or resized: keep the origin inside the field and draw it on the next frame */
+    @Override
+    public void setBounds(final int x, final int y, final int width, final int height) {
+        super.setBounds( x, y, width, height );
+        setOrigin( originX, originY );
+    }
+
+    /** draw a new frame when the render thread next wakes up */
+    void setDirty() {
+        dirty = true;
+    }
+
+    /** @return position of the upper left corner of the canvas in the field */
+    Point getOrigin() {
+        return new Point( originX, originY );
+    }
+
+    /**
+     * Scroll to show the field from the given position, or as near to it as the field and the size of the canvas allow
+     * @param x - x co-ordinate in the field, in pixels
+     * @param y - y co-ordinate in the field, in pixels
+     */
+    void setOrigin(final int x, final int y) {
+        originX = clampX( x, getWidth() );
+        originY = clampY( y, getHeight() );
+        setDirty();
+    }
+
+    /** the field or the <code>Square</code> size changed: keep the origin inside the field */
+    void fieldResized() {
+        setOrigin( originX, originY );
+    }
+
+    /** @return x co-ordinate <var>x</var> kept inside the field for a canvas <var>wd</var> pixels wide */
+    private int clampX(final int x, final int wd) {
+        return Math.max( 0, Math.min( field.getFieldWidth() * field.getSquareLength() - wd, x ) );
+    }
+
+    /** @return y co-ordinate <var>y</var> kept inside the field for a canvas <var>ht</var> pixels high */
+    private int clampY(final int y, final int ht) {
+        return Math.max( 0, Math.min( field.getFieldHeight() * field.getSquareLength() - ht, y ) );
+    }
+
+    /** the render loop: draw a frame if anything changed, then sleep until the next frame is due */
+    @Override
+    public void run() {
+        long $next = System.nanoTime();
+        while( running ) {
+            if( dirty ) {
+                dirty = false;
+                try {
+                    render();
+                } catch( IllegalStateException ise ) {
+                    // the buffers went away while the canvas was being removed
+                    break;
+                }
+            }
+
+            $next += FRAME_NANOS;
+            long $wait = $next - System.nanoTime();
+            if( $wait > 0 )
+                LockSupport.parkNanos( $wait );
+            else
+                $next = System.nanoTime(); // fell behind: drop the missed frames rather than rushing to catch up
+        }
+    }
+
+    /** draw the visible part of the field on the back buffer and show it */
+    private void render() {
+        BufferStrategy $strategy = getBufferStrategy();
+        if( $strategy == null ) return;
+
+        int $wd = getWidth(), $ht = getHeight();
+        do {
+            do {
+                Graphics2D $g = (Graphics2D) $strategy.getDrawGraphics();
+                $g.setColor( getBackground() );
+                $g.fillRect( 0, 0, $wd, $ht );
+
+                // the same origin as the mouse events are converted with
+                int $ox = originX, $oy = originY;
+                $g.translate( -$ox, -$oy );
+                $g.clipRect( $ox, $oy, $wd, $ht );
+                // the same lock the MineField holds while a move changes the field
+                synchronized( field ) {
+                    field.paintComponent( $g );
+                }
+                $g.dispose();
+            } while( $strategy.contentsRestored() );
+
+            $strategy.show();
+        } while( $strategy.contentsLost() );
+
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    /**
+     * @param evt - {@link MouseEvent} on the canvas
+     * @return the same event on the <code>MineField</code>, at field co-ordinates
+     */
+    private MouseEvent convert(final MouseEvent evt) {
+        if( evt instanceof MouseWheelEvent ) {
+            MouseWheelEvent $wheel = (MouseWheelEvent) evt;
+            return new MouseWheelEvent( field, evt.getID(), evt.getWhen(), evt.getModifiersEx(), evt.getX() + originX,
+                                        evt.getY() + originY, evt.getXOnScreen(), evt.getYOnScreen(), evt.getClickCount(),
+                                        evt.isPopupTrigger(), $wheel.getScrollType(), $wheel.getScrollAmount(),
+                                        $wheel.getWheelRotation(), $wheel.getPreciseWheelRotation() );
+        }
+        return new MouseEvent( field, evt.getID(), evt.getWhen(), evt.getModifiersEx(), evt.getX() + originX,
+                               evt.getY() + originY, evt.getClickCount(), evt.isPopupTrigger(), evt.getButton() );
+    }
+
+    /** @see java.awt.event.MouseListener#mousePressed(java.awt.event.MouseEvent) */
+    @Override
+    public void mousePressed(final MouseEvent evt) {
+        // a finished game takes no more moves
+        if( field.isListening() ) field.mousePressed( convert( evt ) );
+    }
+
+    /** @see java.awt.event.MouseListener#mouseReleased(java.awt.event.MouseEvent) */
+    @Override
+    public void mouseReleased(final MouseEvent evt) {
+        if( field.isListening() ) field.mouseReleased( convert( evt ) );
+    }
+
+    /** @see java.awt.event.MouseListener#mouseClicked(java.awt.event.MouseEvent) */
+    @Override
+    public void mouseClicked(final MouseEvent evt) {}
+
+    /** @see java.awt.event.MouseListener#mouseEntered(java.awt.event.MouseEvent) */
+    @Override
+    public void mouseEntered(final MouseEvent evt) {}
+
+    /** @see java.awt.event.MouseListener#mouseExited(java.awt.event.MouseEvent) */
+    @Override
+    public void mouseExited(final MouseEvent evt) {}
+
+    /**
+     * Zoom with the control key down, keeping the <code>Square</code> under the mouse in place, otherwise scroll - across
+     * with the shift key down
+     * @param evt - {@link MouseWheelEvent}
+     */
+    @Override
+    public void mouseWheelMoved(final MouseWheelEvent evt) {
+        int $old = field.getSquareLength();
+        if( evt.isControlDown() ) {
+            // the field keeps the origin inside it as it zooms: anchor on the origin from before
+            int $ox = originX, $oy = originY;
+            field.mouseWheelMoved( (MouseWheelEvent) convert( evt ) );
+            int $len = field.getSquareLength();
+            setOrigin( (int) ((long) (evt.getX() + $ox) * $len / $old) - evt.getX(),
+                       (int) ((long) (evt.getY() + $oy) * $len / $old) - evt.getY() );
+        } else if( evt.isShiftDown() )
+            setOrigin( originX + evt.getWheelRotation() * WHEEL_SQUARES * $old, originY );
+        else
+            setOrigin( originX, originY + evt.getWheelRotation() * WHEEL_SQUARES * $old );
+    }
+
+}/* class ActiveField */
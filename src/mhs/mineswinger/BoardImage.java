@@ -0,0 +1,111 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * BoardImage.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+/**
+ * BoardImage draws the field of a {@link MineEngine} into a <code>BufferedImage</code> or a PNG file with the same tiles
+ * as the game, WITHOUT any Swing component - for thumbnails of recorded games in batch jobs<br>
+ * - works with <code>java.awt.headless=true</code><br>
+ * - each thread keeps its own {@link SquareTiles}, so many boards can be drawn in parallel, as long as each
+ * <code>MineEngine</code> is used by only one thread at a time and is not changed while it is drawn
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see SquareTiles
+ */
+public final class BoardImage {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+
+    /** largest number of pixels in one image: 64M, i.e. 256MB of <code>TYPE_INT_RGB</code> */
+    static final long MAX_PIXELS = 1L << 26;
+
+    /** the tiles of the latest size drawn on each thread */
+    private static final ThreadLocal<SquareTiles> tiles = new ThreadLocal<SquareTiles>();
+
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /** only static methods */
+    private BoardImage() {}
+
+    /**
+     * Draw the field as the player sees it - the mines are shown once the game is over
+     * @param engine - the game
+     * @param squareLength - length of sides (in pixels) of each <code>Square</code>
+     * @return new image
+     */
+    public static BufferedImage render(final MineEngine engine, final int squareLength) {
+        return render( engine, squareLength, engine.isDestroyed() || engine.isBadClear() );
+    }
+
+    /**
+     * Draw the field
+     * @param engine - the game
+     * @param squareLength - length of sides (in pixels) of each <code>Square</code>
+     * @param showMines - true to show all the mines - lays the mines of any part of the field not yet played
+     * @return new image
+     * @throws IllegalArgumentException if the image would have more than {@link #MAX_PIXELS} pixels
+     */
+    public static BufferedImage render(final MineEngine engine, final int squareLength, final boolean showMines) {
+        int $wd = engine.getFieldWidth(), $ht = engine.getFieldHeight();
+        if( squareLength < 1 || (long) $wd * $ht * squareLength * squareLength > MAX_PIXELS )
+            throw new IllegalArgumentException( "BoardImage: " + $wd + " x " + $ht + " Squares of " + squareLength
+                                                + " pixels is more than " + MAX_PIXELS + " pixels" );
+
+        SquareTiles $tiles = tiles.get();
+        if( $tiles == null || $tiles.getSquareLength() != squareLength ) {
+            $tiles = new SquareTiles( squareLength, null );
+            tiles.set( $tiles );
+        }
+
+        BufferedImage $image = new BufferedImage( $wd * squareLength, $ht * squareLength, BufferedImage.TYPE_INT_RGB );
+        Graphics2D $g = $image.createGraphics();
+        $tiles.validate( $g, SquareTiles.fontFor( squareLength ) );
+
+        boolean $over = engine.isDestroyed() || engine.isBadClear();
+        int $lossx = engine.getLossX(), $lossy = engine.getLossY();
+        for( int y = 0; y < $ht; y++ )
+            for( int x = 0; x < $wd; x++ ) {
+                int $type;
+                if( $over && x == $lossx && y == $lossy ) // the Square which ended the game: its mine, or the bad clear
+                    $type = engine.isDestroyed() ? MineField.MINE : MineField.BADCLEAR;
+                else
+                    $type = MineField.squareType( engine, x, y, showMines );
+
+                $tiles.draw( $g, x * squareLength, y * squareLength, $type, SquareTiles.NORMAL );
+            }
+        $g.dispose();
+
+        return $image;
+    }
+
+    /**
+     * Draw the field as the player sees it into a PNG file
+     * @param engine - the game
+     * @param squareLength - length of sides (in pixels) of each <code>Square</code>
+     * @param file - PNG file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void writePng(final MineEngine engine, final int squareLength, final File file) throws IOException {
+        if( !ImageIO.write( render( engine, squareLength ), "png", file ) )
+            throw new IOException( "BoardImage: no PNG writer available for " + file );
+    }
+
+}/* class BoardImage */
@@ -0,0 +1,160 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * ChangeArea.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+import java.util.Arrays;
+
+/**
+ * ChangeArea covers EXACTLY the <code>Squares</code> changed by a {@link MineEngine} move with a small number of
+ * rectangles, so that a long thin or diagonal opening does not repaint everything in its bounding box<br>
+ * - the changed <code>Squares</code> are sorted into horizontal runs, row by row, and a run is merged into the rectangle
+ * directly above it when both have the same left and right edges<br>
+ * - each {@link ChangeSet} builds its own, on the engine thread
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineField
+ */
+class ChangeArea {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+    //@formatter:off
+    /** the rectangles, as (left, top, right, bottom) in <code>Squares</code> */
+    private int[] rects = new int[4 * 16];
+    /** number of rectangles */
+    private int count;
+
+    /** bounding box of all the rectangles */
+    private int left, top, right, bottom;
+
+    /** scratch: sorted field indices of the changed <code>Squares</code> */
+    private int[] sorted = new int[64];
+
+    /** scratch: the rectangles ending on the previous row and on the current row, in order of their left edges */
+    private int[] above = new int[16], current = new int[16];
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * Build the rectangles for the <code>Squares</code> changed by the latest move
+     * @param engine - the {@link MineEngine} which made the move
+     */
+    void set(final MineEngine engine) {
+        int $num = engine.getChangeCount();
+        int $wd = engine.getFieldWidth();
+
+        if( sorted.length < $num ) sorted = new int[Math.max( $num, sorted.length * 2 )];
+        for( int i = 0; i < $num; i++ )
+            sorted[i] = engine.getChange( i );
+        Arrays.sort( sorted, 0, $num );
+
+        count = 0;
+        int $numAbove = 0, $numCurrent = 0, $row = -1, a = 0;
+        int i = 0, idx, u, v, $end;
+        while( i < $num ) {
+            idx = sorted[i];
+            v = idx / $wd;
+            u = idx - v * $wd;
+
+            // extend the run to the right
+            $end = u;
+            while( i + 1 < $num && sorted[i + 1] == idx + ($end - u) + 1 && ($end + 1) < $wd ) {
+                $end++;
+                i++;
+            }
+            i++;
+
+            if( v != $row ) {
+                // the rectangles of the last row become the ones above this row
+                int[] $swap = above;
+                above = current;
+                current = $swap;
+                $numAbove = (v == $row + 1) ? $numCurrent : 0;
+                $numCurrent = 0;
+                a = 0;
+                $row = v;
+            }
+
+            // look for a rectangle directly above with the same edges
+            while( a < $numAbove && rects[4 * above[a]] < u )
+                a++;
+            int r;
+            if( a < $numAbove && rects[4 * above[a]] == u && rects[4 * above[a] + 2] == $end ) {
+                r = above[a++];
+                rects[4 * r + 3] = v;
+                bottom = v; // runs arrive row by row
+            } else
+                r = add( u, v, $end );
+
+            if( $numCurrent == current.length ) current = Arrays.copyOf( current, current.length * 2 );
+            current[$numCurrent++] = r;
+        }
+    }
+
+    /**
+     * add a new rectangle one row high
+     * @param u - left edge
+     * @param v - row
+     * @param end - right edge
+     * @return index of the new rectangle
+     */
+    private int add(final int u, final int v, final int end) {
+        if( 4 * count == rects.length ) rects = Arrays.copyOf( rects, rects.length * 2 );
+        rects[4 * count] = u;
+        rects[4 * count + 1] = v;
+        rects[4 * count + 2] = end;
+        rects[4 * count + 3] = v;
+
+        if( count == 0 ) {
+            left = u;
+            top = v;
+            right = end;
+            bottom = v;
+        } else {
+            left = Math.min( left, u );
+            right = Math.max( right, end );
+            bottom = v; // runs arrive row by row
+        }
+        return count++;
+    }
+
+    //@formatter:off
+    /** @return number of rectangles */
+    int size() { return count;}
+
+    /** @return left edge of rectangle <var>i</var> */
+    int getLeft(final int i) { return rects[4 * i];}
+
+    /** @return top edge of rectangle <var>i</var> */
+    int getTop(final int i) { return rects[4 * i + 1];}
+
+    /** @return right edge of rectangle <var>i</var> */
+    int getRight(final int i) { return rects[4 * i + 2];}
+
+    /** @return bottom edge of rectangle <var>i</var> */
+    int getBottom(final int i) { return rects[4 * i + 3];}
+
+    /** @return left edge of the bounding box of all the rectangles */
+    int getBoundsLeft() { return left;}
+
+    /** @return top edge of the bounding box */
+    int getBoundsTop() { return top;}
+
+    /** @return right edge of the bounding box */
+    int getBoundsRight() { return right;}
+
+    /** @return bottom edge of the bounding box */
+    int getBoundsBottom() { return bottom;}
+    //@formatter:on
+
+}/* class ChangeArea */
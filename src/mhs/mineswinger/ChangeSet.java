@@ -0,0 +1,130 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * ChangeSet.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+/**
+ * ChangeSet is the result of one {@link EngineThread} command, as handed to the Event Dispatch Thread: the new bits of
+ * every <code>Square</code> the command changed, the rectangles to repaint and the counters of the game<br>
+ * - built on the engine thread and never changed afterwards, so the view needs no lock to read it
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see EngineThread
+ * @see MineField#apply(ChangeSet)
+ */
+final class ChangeSet {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+    //@formatter:off
+    /** number of the game */
+    private final int game;
+
+    /** the {@link EngineThread} command */
+    private final int command;
+
+    /** result of the move - null if the command was not a move */
+    private final MoveResult move;
+
+    /** field indices of the <code>Squares</code> changed by the move */
+    private final int[] squares;
+
+    /** packed {@link MineEngine} bits of each changed <code>Square</code> */
+    private final byte[] bits;
+
+    /** the changed <code>Squares</code> as rectangles */
+    private final ChangeArea area = new ChangeArea();
+
+    /** mines left to flag, and in all, after the command */
+    private final int hiddenMines, totalMines;
+
+    /** mine density of the game */
+    private final double density;
+
+    /** the engine, once the game is lost - null while the game is on */
+    private final MineEngine finished;
+
+    /** time taken by the command on the engine thread */
+    private final long nanos;
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * CONSTRUCTOR - called on the engine thread right after the command
+     * @param number - number of the game
+     * @param cmd - the {@link EngineThread} command
+     * @param engine - the {@link MineEngine} the command was run on
+     * @param result - result of the move, or null if the command was not a move
+     * @param time - nanoseconds taken by the command
+     */
+    ChangeSet(final int number, final int cmd, final MineEngine engine, final MoveResult result, final long time) {
+        game = number;
+        command = cmd;
+        move = result;
+        nanos = time;
+
+        int $num = (result == null) ? 0 : engine.getChangeCount();
+        int $wd = engine.getFieldWidth();
+        squares = new int[$num];
+        bits = new byte[$num];
+        for( int i = 0; i < $num; i++ ) {
+            int $idx = engine.getChange( i );
+            squares[i] = $idx;
+            bits[i] = (byte) engine.cell( $idx % $wd, $idx / $wd );
+        }
+        if( $num > 0 ) area.set( engine );
+
+        hiddenMines = engine.getNumHiddenMines();
+        totalMines = engine.getNumTotalMines();
+        density = engine.getDensity();
+        finished = (engine.isDestroyed() || engine.isBadClear()) ? engine : null;
+    }
+
+    //@formatter:off
+    /** @return number of the game */
+    int getGame() { return game;}
+
+    /** @return the {@link EngineThread} command */
+    int getCommand() { return command;}
+
+    /** @return result of the move, or null if the command was not a move */
+    MoveResult getMove() { return move;}
+
+    /** @return number of <code>Squares</code> changed */
+    int getChangeCount() { return squares.length;}
+
+    /** @return field index of the i'th <code>Square</code> changed */
+    int getSquare(final int i) { return squares[i];}
+
+    /** @return packed bits of the i'th <code>Square</code> changed */
+    int getBits(final int i) { return bits[i] & 0xFF;}
+
+    /** @return the changed <code>Squares</code> as rectangles */
+    ChangeArea getArea() { return area;}
+
+    /** @return remaining number of hidden mines */
+    int getNumHiddenMines() { return hiddenMines;}
+
+    /** @return total number of mines, hidden or flagged */
+    int getNumTotalMines() { return totalMines;}
+
+    /** @return mine density */
+    double getDensity() { return density;}
+
+    /** @return the {@link MineEngine}, if the command lost the game - otherwise null */
+    MineEngine getFinished() { return finished;}
+
+    /** @return nanoseconds taken by the command */
+    long getNanos() { return nanos;}
+    //@formatter:on
+
+}/* class ChangeSet */
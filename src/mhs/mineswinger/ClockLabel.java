@@ -0,0 +1,122 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * ClockLabel.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Insets;
+
+import javax.swing.JLabel;
+
+/**
+ * ClockLabel shows a time as <code>hh:mm:ss</code>, or <code>hh:mm:ss.mmm</code>, from a reused character array, so
+ * refreshing the game time builds no strings<br>
+ * - {@link #setTime} only repaints when the digits shown change<br>
+ * - any text set with {@link #setText} is shown as in a plain <code>JLabel</code> until the next {@link #setTime}
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see GameClock
+ */
+class ClockLabel extends JLabel {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+
+    /** Keep the compiler from complaining... */
+    private static final long serialVersionUID = -2391562204185386247L;
+    //@formatter:off
+    /** longest time shown: 99:59:59.999 */
+    static final long MAX_MILLIS = 100L * 3600 * 1000 - 1;
+
+    /** the time shown, as <code>hh:mm:ss.mmm</code> */
+    private final char[] digits = { '0', '0', ':', '0', '0', ':', '0', '0', '.', '0', '0', '0' };
+
+    /** number of {@link #digits} shown: 8, 12 - or 0 while showing the label text */
+    private int length;
+
+    /** the time shown, in msec - or -1 */
+    private long shown = -1;
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * CONSTRUCTOR
+     * @param text - shown until the first {@link #setTime}
+     */
+    ClockLabel(final String text) {
+        super( text );
+    }
+
+    /**
+     * Show a time - repaints only if the digits shown change
+     * @param millis - time in msec
+     * @param showMillis - true to show the milliseconds, otherwise whole seconds
+     */
+    void setTime(final long millis, final boolean showMillis) {
+        long $time = Math.max( 0, Math.min( MAX_MILLIS, millis ) );
+        if( !showMillis ) $time -= $time % 1000;
+        int $len = showMillis ? digits.length : 8;
+        if( $time == shown && $len == length ) return;
+
+        shown = $time;
+        length = $len;
+        put( 0, (int) ($time / 3600000L), 2 );
+        put( 3, (int) ($time / 60000L % 60), 2 );
+        put( 6, (int) ($time / 1000L % 60), 2 );
+        put( 9, (int) ($time % 1000L), 3 );
+        repaint();
+    }
+
+    /**
+     * @param start - index of the first digit in {@link #digits}
+     * @param value - number to write
+     * @param width - number of digits, with leading zeroes
+     */
+    private void put(final int start, final int value, final int width) {
+        int $value = value;
+        for( int i = start + width - 1; i >= start; i-- ) {
+            digits[i] = (char) ('0' + $value % 10);
+            $value /= 10;
+        }
+    }
+
+    /** show <var>text</var> instead of a time */
+    @Override
+    public void setText(final String text) {
+        length = 0;
+        shown = -1;
+        super.setText( text );
+    }
+
+    /** draw the digits straight from {@link #digits}, unless showing the label text */
+    @Override
+    protected void paintComponent(final Graphics page) {
+        if( length == 0 ) {
+            super.paintComponent( page );
+            return;
+        }
+
+        if( isOpaque() ) {
+            page.setColor( getBackground() );
+            page.fillRect( 0, 0, getWidth(), getHeight() );
+        }
+        page.setFont( getFont() );
+        page.setColor( getForeground() );
+
+        FontMetrics $fm = page.getFontMetrics();
+        Insets $in = getInsets();
+        int $y = $in.top + (getHeight() - $in.top - $in.bottom - $fm.getHeight()) / 2 + $fm.getAscent();
+        page.drawChars( digits, 0, length, $in.left, $y );
+    }
+
+}/* class ClockLabel */
@@ -0,0 +1,166 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * EngineThread.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * EngineThread runs all the game logic of a {@link MineField} on one thread of its own, so that big openings and new
+ * boards are worked out while the Event Dispatch Thread goes on painting<br>
+ * - the view posts each command and returns at once: the commands run one at a time, in the order they were posted<br>
+ * - the result of each command is handed back to the view on the Event Dispatch Thread as an immutable
+ * {@link ChangeSet}, in the same order<br>
+ * - each game is played on a new {@link MineEngine}, which only this thread uses while the game is on: once the game
+ * is lost, the engine goes to the view in the last <code>ChangeSet</code>, to show the mines, and is never used here
+ * again
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineField#apply(ChangeSet)
+ */
+class EngineThread {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+    //@formatter:off
+    /** the commands */
+    static final int NEW_GAME = 0,
+                     REVEAL = 1,
+                     CHORD = 2,
+                     FLAG = 3,
+                     QMARK = 4,
+                     CLEAR_QMARKS = 5;
+
+    /** runs the commands, one at a time */
+    private final ExecutorService queue = Executors.newSingleThreadExecutor( new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable task) {
+            Thread $thread = new Thread( task, "MineSwinger-engine" );
+            $thread.setDaemon( true );
+            return $thread;
+        }
+    });
+
+    /** the view which receives the results */
+    private final MineField field;
+
+    /** supplies the seeds of the games */
+    private final SplittableRandom seeder = new SplittableRandom();
+
+    /** the game being played - null once the game is lost; used ONLY on the engine thread */
+    private MineEngine engine;
+
+    /** number of the game being played, as given by the view */
+    private int game;
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * CONSTRUCTOR
+     * @param view - the {@link MineField} which receives the results
+     */
+    EngineThread(final MineField view) {
+        field = view;
+    }
+
+    /**
+     * Start a new game on a new {@link MineEngine}
+     * @param number - number of the new game: the results of moves in earlier games are no longer wanted
+     * @param wd - field width
+     * @param ht - field height
+     * @param dens - mine density
+     */
+    void newGame(final int number, final int wd, final int ht, final double dens) {
+        queue.execute( new Runnable() {
+            @Override
+            public void run() {
+                long $start = System.nanoTime();
+                game = number;
+                engine = new MineEngine( wd, ht, dens, seeder.nextLong() );
+                publish( new ChangeSet( number, NEW_GAME, engine, null, System.nanoTime() - $start ) );
+            }
+        });
+    }
+
+    /**
+     * Make a move
+     * @param number - number of the game the move was made in - ignored unless it is still being played
+     * @param command - {@link #REVEAL}, {@link #CHORD}, {@link #FLAG} or {@link #QMARK}
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @param qmarks - true if question marks may be added
+     */
+    void move(final int number, final int command, final int x, final int y, final boolean qmarks) {
+        queue.execute( new Runnable() {
+            @Override
+            public void run() {
+                if( engine == null || number != game ) return;
+
+                long $start = System.nanoTime();
+                MoveResult $move;
+                switch( command ) {
+                case REVEAL:
+                    $move = engine.reveal( x, y );
+                    break;
+                case CHORD:
+                    $move = engine.chord( x, y );
+                    break;
+                case FLAG:
+                    $move = engine.toggleFlag( x, y );
+                    break;
+                default: // QMARK
+                    $move = engine.toggleQmark( x, y, qmarks );
+                }
+
+                long $nanos = System.nanoTime() - $start;
+                Trace.event( Trace.MOVE, command, $nanos, $move.getRevealed() );
+
+                ChangeSet $changes = new ChangeSet( number, command, engine, $move, $nanos );
+                if( $changes.getFinished() != null ) engine = null; // the view has it now
+                publish( $changes );
+            }
+        });
+    }
+
+    /**
+     * Clear any question marks
+     * @param number - number of the game - ignored unless it is still being played
+     */
+    void clearQmarks(final int number) {
+        queue.execute( new Runnable() {
+            @Override
+            public void run() {
+                if( engine == null || number != game ) return;
+
+                long $start = System.nanoTime();
+                if( engine.clearQmarks() )
+                    publish( new ChangeSet( number, CLEAR_QMARKS, engine, null, System.nanoTime() - $start ) );
+            }
+        });
+    }
+
+    /** @param changes - result to hand to the view on the Event Dispatch Thread */
+    private void publish(final ChangeSet changes) {
+        SwingUtilities.invokeLater( new Runnable() {
+            @Override
+            public void run() {
+                field.apply( changes );
+            }
+        });
+    }
+
+}/* class EngineThread */
@@ -0,0 +1,278 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * FieldBuffer.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * FieldBuffer keeps an offscreen image of the {@link MineField}, so that painting is a copy of the clip region and only
+ * <code>Squares</code> whose state changed are drawn again<br>
+ * - the image is split into pages of {@link #PAGE_SQUARES} x {@link #PAGE_SQUARES} <code>Squares</code>, each created the
+ * first time it is painted, so a huge field only costs memory for the parts which have been on screen<br>
+ * - each page has one damage bit per <code>Square</code>: damaged <code>Squares</code> are drawn from the tiles the next
+ * time the page is painted<br>
+ * - once the pages use more than {@link #MAX_PIXELS}, the oldest pages are dropped
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineField
+ * @see SquareTiles
+ */
+class FieldBuffer {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+    //@formatter:off
+    /** number of <code>Squares</code> across and down a page: one int of damage bits per row */
+    static final int PAGE_BITS = 5,
+                     PAGE_SQUARES = 1 << PAGE_BITS,
+                     PAGE_MASK = PAGE_SQUARES - 1;
+
+    /** maximum number of device pixels kept in pages */
+    static final long MAX_PIXELS = 1L << 24;
+
+    /** the view which says what each <code>Square</code> looks like */
+    private final MineField field;
+
+    /** the images of the <code>Squares</code> */
+    private final SquareTiles tiles;
+
+    /** number of <code>Squares</code> across and down the field */
+    private int fieldWidth, fieldHeight;
+
+    /** number of pages across and down the field */
+    private int pageCols, pageRows;
+
+    /** length of sides (in pixels at scale 1) of each <code>Square</code> */
+    private int squareLength;
+
+    /** the pages, row by row - each entry is null until first painted */
+    private BufferedImage[] pages;
+
+    /** damage bits of each page, one int per row of <code>Squares</code> - null while the page does not exist */
+    private int[][] damage;
+
+    /** indices of the existing pages, oldest first, in a ring */
+    private int[] created;
+    /** first entry and number of entries in {@link #created} */
+    private int createdStart, createdCount;
+
+    /** number of device pixels in the existing pages */
+    private long pixels;
+
+    /** number of <code>Squares</code> drawn from the tiles by the latest {@link #paint} */
+    private int drawnCount;
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * CONSTRUCTOR
+     * @param view - the {@link MineField} to buffer
+     * @param images - the {@link SquareTiles} to draw with
+     * @param side - length of sides (in pixels) of each <code>Square</code>
+     */
+    FieldBuffer(final MineField view, final SquareTiles images, final int side) {
+        field = view;
+        tiles = images;
+        squareLength = side;
+        clear();
+    }
+
+    /**
+     * change the number of <code>Squares</code> across and down for a new game - drops all the pages if the size is
+     * different, otherwise keeps them and marks every <code>Square</code> as damaged
+     * @param wd - field width
+     * @param ht - field height
+     */
+    void setFieldSize(final int wd, final int ht) {
+        if( wd == fieldWidth && ht == fieldHeight ) {
+            damageAll();
+            return;
+        }
+        fieldWidth = wd;
+        fieldHeight = ht;
+        clear();
+    }
+
+    /**
+     * change the size of the <code>Squares</code> - drops all the pages if the size is different
+     * @param side - new length of sides (in pixels)
+     */
+    void setSquareLength(final int side) {
+        if( side != squareLength ) {
+            squareLength = side;
+            clear();
+        }
+    }
+
+    /** drop all the pages so they are drawn again when next painted */
+    void clear() {
+        pageCols = (fieldWidth + PAGE_MASK) >>> PAGE_BITS;
+        pageRows = (fieldHeight + PAGE_MASK) >>> PAGE_BITS;
+        pages = new BufferedImage[pageCols * pageRows];
+        damage = new int[pages.length][];
+        created = new int[Math.max( 1, pages.length )];
+        createdStart = createdCount = 0;
+        pixels = 0;
+    }
+
+    /**
+     * mark a rectangle of <code>Squares</code> to be drawn again when next painted
+     * @param left - first column
+     * @param top - first row
+     * @param right - last column
+     * @param bottom - last row
+     */
+    void damage(final int left, final int top, final int right, final int bottom) {
+        int $left = Math.max( 0, left ), $right = Math.min( fieldWidth - 1, right );
+        int $top = Math.max( 0, top ), $bottom = Math.min( fieldHeight - 1, bottom );
+
+        for( int py = $top >>> PAGE_BITS; py <= $bottom >>> PAGE_BITS; py++ )
+            for( int px = $left >>> PAGE_BITS; px <= $right >>> PAGE_BITS; px++ ) {
+                int[] $bits = damage[py * pageCols + px];
+                if( $bits == null ) continue; // will be drawn in full when created
+
+                int lx0 = Math.max( $left, px << PAGE_BITS ) & PAGE_MASK;
+                int lx1 = Math.min( $right, (px << PAGE_BITS) + PAGE_MASK ) & PAGE_MASK;
+                int $mask = (int) ((-1L << lx0) & (-1L >>> (63 - lx1)));
+
+                int ly1 = Math.min( $bottom, (py << PAGE_BITS) + PAGE_MASK ) & PAGE_MASK;
+                for( int ly = Math.max( $top, py << PAGE_BITS ) & PAGE_MASK; ly <= ly1; ly++ )
+                    $bits[ly] |= $mask;
+            }
+    }
+
+    /** mark every <code>Square</code> to be drawn again when next painted - the pages are kept */
+    void damageAll() {
+        damage( 0, 0, fieldWidth - 1, fieldHeight - 1 );
+    }
+
+    /**
+     * Copy the clip region of the buffer to the page, first bringing the pages it covers up to date<br>
+     * - the pages are drawn at the scale of the tiles, so must be dropped whenever the tiles are
+     * @param page - {@link Graphics} page
+     */
+    void paint(final Graphics page) {
+        drawnCount = 0;
+        Rectangle $clip = page.getClipBounds();
+        if( $clip == null ) $clip = new Rectangle( 0, 0, fieldWidth * squareLength, fieldHeight * squareLength );
+
+        int $pagePx = PAGE_SQUARES * squareLength;
+        int $left = Math.max( 0, $clip.x / $pagePx );
+        int $top = Math.max( 0, $clip.y / $pagePx );
+        int $right = Math.min( pageCols - 1, ($clip.x + $clip.width - 1) / $pagePx );
+        int $bottom = Math.min( pageRows - 1, ($clip.y + $clip.height - 1) / $pagePx );
+
+        for( int py = $top; py <= $bottom; py++ )
+            for( int px = $left; px <= $right; px++ ) {
+                BufferedImage $image = update( page, px, py );
+                page.drawImage( $image, px * $pagePx, py * $pagePx, pageWidth( px ) * squareLength,
+                                pageHeight( py ) * squareLength, null );
+            }
+    }
+
+    /** @return number of <code>Squares</code> drawn from the tiles by the latest {@link #paint} */
+    int getDrawnCount() {
+        return drawnCount;
+    }
+
+    /** @return number of <code>Squares</code> across page column <var>px</var> */
+    private int pageWidth(final int px) {
+        return Math.min( PAGE_SQUARES, fieldWidth - (px << PAGE_BITS) );
+    }
+
+    /** @return number of <code>Squares</code> down page row <var>py</var> */
+    private int pageHeight(final int py) {
+        return Math.min( PAGE_SQUARES, fieldHeight - (py << PAGE_BITS) );
+    }
+
+    /**
+     * Create a page if necessary and draw its damaged <code>Squares</code>
+     * @param page - {@link Graphics} page the buffer will be copied to
+     * @param px - page column
+     * @param py - page row
+     * @return the up to date page
+     */
+    private BufferedImage update(final Graphics page, final int px, final int py) {
+        int pi = py * pageCols + px;
+        int $wd = pageWidth( px ), $ht = pageHeight( py );
+        BufferedImage $image = pages[pi];
+        int[] $bits = damage[pi];
+
+        if( $image == null ) {
+            int $pxWd = (int) Math.ceil( $wd * squareLength * tiles.getScale() );
+            int $pxHt = (int) Math.ceil( $ht * squareLength * tiles.getScale() );
+            evict( (long) $pxWd * $pxHt );
+
+            GraphicsConfiguration $gc = (page instanceof Graphics2D) ? ((Graphics2D) page).getDeviceConfiguration()
+                            : null;
+            $image = ($gc != null) ? $gc.createCompatibleImage( $pxWd, $pxHt, Transparency.OPAQUE )
+                            : new BufferedImage( $pxWd, $pxHt, BufferedImage.TYPE_INT_RGB );
+
+            $bits = new int[PAGE_SQUARES];
+            for( int ly = 0; ly < $ht; ly++ )
+                $bits[ly] = -1;
+
+            pages[pi] = $image;
+            damage[pi] = $bits;
+            created[(createdStart + createdCount++) % created.length] = pi;
+            pixels += (long) $pxWd * $pxHt;
+        }
+
+        Graphics2D $g = null;
+        int $x0 = px << PAGE_BITS, $y0 = py << PAGE_BITS;
+        for( int ly = 0; ly < $ht; ly++ ) {
+            int $row = $bits[ly];
+            if( $row == 0 ) continue;
+
+            if( $g == null ) {
+                $g = $image.createGraphics();
+                $g.scale( (double) $image.getWidth() / ($wd * squareLength),
+                          (double) $image.getHeight() / ($ht * squareLength) );
+            }
+            while( $row != 0 ) {
+                int lx = Integer.numberOfTrailingZeros( $row );
+                $row &= $row - 1;
+                if( lx >= $wd ) break;
+                tiles.draw( $g, lx * squareLength, ly * squareLength, field.squareType( $x0 + lx, $y0 + ly ),
+                            field.squareBackground( $x0 + lx, $y0 + ly ) );
+                drawnCount++;
+            }
+            $bits[ly] = 0;
+        }
+        if( $g != null ) $g.dispose();
+
+        return $image;
+    }
+
+    /**
+     * drop the oldest pages until there is room for a new one
+     * @param needed - number of device pixels in the new page
+     */
+    private void evict(final long needed) {
+        while( createdCount > 0 && pixels + needed > MAX_PIXELS ) {
+            int pi = created[createdStart];
+            createdStart = (createdStart + 1) % created.length;
+            createdCount--;
+
+            pixels -= (long) pages[pi].getWidth() * pages[pi].getHeight();
+            pages[pi] = null;
+            damage[pi] = null;
+        }
+    }
+
+}/* class FieldBuffer */
@@ -0,0 +1,102 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * FieldCells.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+/**
+ * FieldCells is the view's copy of the packed {@link MineEngine} bits of each <code>Square</code>, as of the latest
+ * {@link ChangeSet} applied, so that painting never reads the engine while the engine thread changes it<br>
+ * - stored in chunks like the engine: a chunk is only allocated when one of its <code>Squares</code> changes, and every
+ * other <code>Square</code> is hidden
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineField
+ */
+class FieldCells {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+
+    /** number of <code>Squares</code> across the field */
+    private int fieldWidth;
+
+    /** number of chunks across the field */
+    private int chunkCols;
+
+    /** one packed byte per <code>Square</code> of each chunk, row by row - null until a Square of the chunk changes */
+    private byte[][] chunks = new byte[0][];
+
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * forget all the changes and start a new field with every <code>Square</code> hidden
+     * @param wd - field width
+     * @param ht - field height
+     */
+    void reset(final int wd, final int ht) {
+        fieldWidth = wd;
+        chunkCols = (wd + MineEngine.CHUNK_MASK) >>> MineEngine.CHUNK_BITS;
+        chunks = new byte[chunkCols * ((ht + MineEngine.CHUNK_MASK) >>> MineEngine.CHUNK_BITS)][];
+    }
+
+    /**
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return packed bits
+     */
+    int get(final int x, final int y) {
+        byte[] $chunk = chunks[chunkIndex( x, y )];
+        return ($chunk == null) ? 0 : $chunk[offset( x, y )] & 0xFF;
+    }
+
+    /**
+     * @param index - field index (y * width + x) of a <code>Square</code>
+     * @param bits - new packed bits
+     */
+    void set(final int index, final int bits) {
+        int y = index / fieldWidth;
+        int x = index - y * fieldWidth;
+
+        int ci = chunkIndex( x, y );
+        if( chunks[ci] == null ) chunks[ci] = new byte[MineEngine.CHUNK_SIZE * MineEngine.CHUNK_SIZE];
+        chunks[ci][offset( x, y )] = (byte) bits;
+    }
+
+    /**
+     * Clear any question marks, as the engine does
+     * @return true if any question marks were removed
+     */
+    boolean clearQmarks() {
+        boolean $haveQmarks = false;
+
+        for( byte[] $chunk : chunks )
+            if( $chunk != null )
+                for( int i = 0; i < $chunk.length; i++ )
+                    if( ($chunk[i] & MineEngine.QMARK_BIT) != 0 ) {
+                        $chunk[i] &= ~MineEngine.QMARK_BIT;
+                        $haveQmarks = true;
+                    }
+
+        return $haveQmarks;
+    }
+
+    /** @return index in {@link #chunks} of the chunk holding (x,y) */
+    private int chunkIndex(final int x, final int y) {
+        return (y >>> MineEngine.CHUNK_BITS) * chunkCols + (x >>> MineEngine.CHUNK_BITS);
+    }
+
+    /** @return index of (x,y) within its chunk */
+    private static int offset(final int x, final int y) {
+        return ((y & MineEngine.CHUNK_MASK) << MineEngine.CHUNK_BITS) | (x & MineEngine.CHUNK_MASK);
+    }
+
+}/* class FieldCells */
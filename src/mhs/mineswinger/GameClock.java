@@ -0,0 +1,81 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * GameClock.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+/**
+ * GameClock measures the playing time of a game with <code>System.nanoTime()</code>, so the time is right however late
+ * the Swing timer which refreshes the display happens to fire<br>
+ * - the time does not run while the clock is paused, e.g. while the game window is iconified<br>
+ * - used only on the Event Dispatch Thread
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineSwinger#startClock()
+ */
+class GameClock {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+    //@formatter:off
+    /** nanoseconds of play before the latest start or resume */
+    private long accumulated;
+
+    /** <code>System.nanoTime()</code> at the latest start or resume */
+    private long resumedAt;
+
+    private boolean running = false, 
+                    paused = false;
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /** start timing a new game from zero */
+    void start() {
+        accumulated = 0;
+        resumedAt = System.nanoTime();
+        running = true;
+        paused = false;
+    }
+
+    /** stop the time, keeping it until the next {@link #start()} */
+    void stop() {
+        pause();
+        running = false;
+    }
+
+    /** stop the time running until {@link #resume()} */
+    void pause() {
+        if( running && !paused ) {
+            accumulated += System.nanoTime() - resumedAt;
+            paused = true;
+        }
+    }
+
+    /** let the time run again after {@link #pause()} */
+    void resume() {
+        if( running && paused ) {
+            resumedAt = System.nanoTime();
+            paused = false;
+        }
+    }
+
+    //@formatter:off
+    /** @return true from {@link #start()} until {@link #stop()} */
+    boolean isRunning() { return running;}
+
+    /** @return playing time in nanoseconds */
+    long getElapsedNanos() { return (running && !paused) ? accumulated + (System.nanoTime() - resumedAt) : accumulated;}
+
+    /** @return playing time in milliseconds */
+    long getElapsedMillis() { return getElapsedNanos() / 1000000L;}
+    //@formatter:on
+
+}/* class GameClock */
@@ -0,0 +1,1048 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * MineEngine.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MineEngine contains the game rules and the state of the mine array, with NO dependency on Swing or AWT.<br>
+ * - each move (reveal, flag, question mark, clear around) returns ONE {@link MoveResult} which the view uses to decide
+ * what to paint, play and display<br>
+ * - the field is stored in chunks of {@link #CHUNK_SIZE} x {@link #CHUNK_SIZE} <code>Squares</code>: the mines of a chunk
+ * are laid from the game seed when the chunk is first needed, and its <code>Squares</code> are allocated and counted when
+ * first touched, so a new game costs nothing until it is played<br>
+ * - NO mines are laid before the first reveal, and the 3x3 area around the first revealed <code>Square</code> never has a
+ * mine, so every game opens safely<br>
+ * - the frontier, i.e. the hidden <code>Squares</code> next to revealed numbers, is kept up to date by every move so that
+ * hints and solvers can find it without scanning the field
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineField
+ */
+public class MineEngine {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+    //@formatter:off
+    /** outcome codes of the moves */
+    public static final int IGNORED = 0, // nothing changed
+                            REVEALED = 1, // one or more Squares were revealed
+                            FLAGGED = 2,
+                            UNFLAGGED = 3,
+                            QMARKED = 4,
+                            UNQMARKED = 5,
+                            EXPLODED = 6, // revealed a mine: game over
+                            BAD_CLEAR = 7; // cleared around an incorrect flag: game over
+
+    /** each chunk is CHUNK_SIZE x CHUNK_SIZE Squares, so each row of a chunk's mines fits in one long */
+    static final int CHUNK_BITS = 6,
+                     CHUNK_SIZE = 1 << CHUNK_BITS,
+                     CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * packed <code>Square</code> bits: low nibble is the number of adjacent mines<br>
+     * - the mines themselves are kept in the {@link Chunk#mines} bitboards
+     */
+    static final int COUNT_MASK = 0x0F,
+                     FRONTIER_BIT = 0x10, // hidden and next to a revealed number
+                     REVEALED_BIT = 0x20,
+                     FLAG_BIT = 0x40,
+                     QMARK_BIT = 0x80;
+
+    private double density;
+
+    /** seed of the mine layout in the current game */
+    private long seed;
+
+    /** supplies the seeds for new games when no seed is requested */
+    private final SplittableRandom seeder;
+
+    /** number of mines remaining to be flagged in the current game */
+    private int hiddenMines;
+    /** total number of mines, hidden or flagged, set in the current game */
+    private int totalMines;
+    /** number of mines shared out among the chunks - more than {@link #totalMines} only if the safe opening was too crowded */
+    private int sharedMines;
+
+    /** number of <code>Squares</code> across and down the field */
+    private int fieldWidth, fieldHeight;
+
+    /** number of chunks across and down the field */
+    private int chunkCols, chunkRows;
+
+    /** number of <code>Squares</code> revealed by the most recent move */
+    private int revealCount;
+    /** net change in the number of revealed or flagged <code>Squares</code> made by the most recent move */
+    private int scoreDelta;
+    /** number of revealed or flagged <code>Squares</code> in the current game */
+    private long settled;
+
+    private int lossx, lossy; // x and y co-ordinates of the Square which ended the game
+
+    /** field indices of the <code>Squares</code> changed by the most recent move - re-used by every move */
+    private int[] changes = new int[64];
+    /** number of entries in {@link #changes} */
+    private int changeCount;
+
+    /** the chunks of the field, row by row - each entry is null until the chunk is first needed */
+    private Chunk[] chunks;
+
+    /** work queue of blank <code>Squares</code> waiting to have their span cleared out - re-used by every move */
+    private int[] seeds = new int[64];
+    /** number of entries in {@link #seeds} */
+    private int seedCount;
+
+    /** field indices of the frontier <code>Squares</code> - entries left behind by reveals are dropped when it is compacted */
+    private int[] frontier = new int[64];
+    /** number of entries, current or left behind, in {@link #frontier} */
+    private int frontierLength;
+    /** number of <code>Squares</code> in the frontier */
+    private int frontierCount;
+
+    /** centre of the 3x3 area kept free of mines, set by the first reveal */
+    private int safex, safey;
+
+    /** true once the mine layout is fixed, i.e. any chunk has had its mines laid */
+    private boolean laid;
+    /** true if the layout has an area kept free of mines around {@link #safex},{@link #safey} */
+    private boolean safeZone;
+
+    private boolean destroyed, badClear;
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * CONSTRUCTOR
+     * @param wd - field width
+     * @param ht - field height
+     * @param dens - mine density
+     */
+    public MineEngine(final int wd, final int ht, final double dens) {
+        this( wd, ht, dens, new SplittableRandom().nextLong() );
+    }
+
+    /**
+     * CONSTRUCTOR - the same seed always produces the same sequence of games
+     * @param wd - field width
+     * @param ht - field height
+     * @param dens - mine density
+     * @param sd - seed for the first game, and for the seeds of any following games
+     */
+    public MineEngine(final int wd, final int ht, final double dens, final long sd) {
+        density = dens;
+        seeder = new SplittableRandom( sd );
+        newGame( wd, ht, sd );
+    }
+
+    /**
+     * Start a new game with the next seed from this engine
+     * @param wd - field width
+     * @param ht - field height
+     * @see #newGame(int, int, long)
+     */
+    public void newGame(final int wd, final int ht) {
+        newGame( wd, ht, seeder.nextLong() );
+    }
+
+    /**
+     * Set the initial variables for a new field - the same size, density, seed and first revealed <code>Square</code> always
+     * produce the same field<br>
+     * - NO chunks are allocated and NO mines are laid here
+     * @param wd - field width
+     * @param ht - field height
+     * @param sd - seed for the mine layout
+     */
+    public void newGame(final int wd, final int ht, final long sd) {
+        fieldWidth = wd;
+        fieldHeight = ht;
+        seed = sd;
+
+        long $size = (long) fieldWidth * fieldHeight;
+        totalMines = (int) (density * $size);
+        // always have at least one mine in case of zero density
+        if( totalMines < 1 ) {
+            totalMines = 1;
+            density = 1.0 / $size;
+        }
+        hiddenMines = sharedMines = totalMines;
+
+        chunkCols = (fieldWidth + CHUNK_MASK) >>> CHUNK_BITS;
+        chunkRows = (fieldHeight + CHUNK_MASK) >>> CHUNK_BITS;
+        chunks = new Chunk[chunkCols * chunkRows];
+
+        laid = safeZone = badClear = destroyed = false;
+        revealCount = scoreDelta = frontierLength = frontierCount = 0;
+        settled = 0;
+    }
+
+    //@formatter:off
+    /** @return remaining number of hidden mines in the current game */
+    public int getNumHiddenMines() { return hiddenMines;}
+
+    /** @return total number of mines, hidden or flagged, in the current game */
+    public int getNumTotalMines() { return totalMines;}
+
+    /** @return density */
+    public double getDensity() { return density;}
+
+    /**
+     * change mine density for the next game
+     * @param dens - to set
+     */
+    public void setDensity(final double dens) { density = dens;}
+
+    /** @return seed of the mine layout in the current game */
+    public long getSeed() { return seed;}
+
+    /** @return number of <code>Squares</code> across the field */
+    public int getFieldWidth() { return fieldWidth;}
+
+    /** @return number of <code>Squares</code> down the field */
+    public int getFieldHeight() { return fieldHeight;}
+
+    /** @return number of hidden <code>Squares</code>, flagged or not, next to a revealed number */
+    public int getFrontierSize() { return frontierCount;}
+
+    /** @return true if the <code>Square</code> at (x,y) is hidden and next to a revealed number */
+    public boolean isFrontier(final int x, final int y) { return (cell( x, y ) & FRONTIER_BIT) != 0;}
+
+    /** @return {@link #revealCount} */
+    public int getRevealCount() { return revealCount;}
+
+    /** @return true if every <code>Square</code> without a mine is revealed and every mine is flagged */
+    public boolean isWon() { return settled == (long) fieldWidth * fieldHeight && hiddenMines == 0;}
+
+    /** @return true if a mine was revealed */
+    public boolean isDestroyed() { return destroyed;}
+
+    /** @return true if the user cleared around an incorrect flag */
+    public boolean isBadClear() { return badClear;}
+
+    /** @return x co-ordinate of the Square which ended the game */
+    public int getLossX() { return lossx;}
+
+    /** @return y co-ordinate of the Square which ended the game */
+    public int getLossY() { return lossy;}
+
+    /** @return number of <code>Squares</code> changed by the most recent move */
+    public int getChangeCount() { return changeCount;}
+
+    /**
+     * @param i - from 0 to {@link #getChangeCount()} - 1
+     * @return field index (y * width + x) of a <code>Square</code> changed by the most recent move, in no particular order
+     */
+    public int getChange(final int i) { return changes[i];}
+
+    /** @return index of the <code>Square</code> at (x,y) over the whole field, row by row */
+    public int index(final int x, final int y) { return y * fieldWidth + x;}
+
+    /** @return true if (x,y) is a <code>Square</code> of the field - every other co-ordinate is ignored by the moves */
+    public boolean inField(final int x, final int y) { return x >= 0 && y >= 0 && x < fieldWidth && y < fieldHeight;}
+
+    /**
+     * @return true if the <code>Square</code> at (x,y) has a mine<br>
+     *         - asking before the first reveal fixes the mine layout WITHOUT a safe opening area
+     */
+    public boolean hasMine(final int x, final int y) {
+        return (mines( x >>> CHUNK_BITS, y >>> CHUNK_BITS )[y & CHUNK_MASK] & (1L << (x & CHUNK_MASK))) != 0;
+    }
+
+    /** @return true if the <code>Square</code> at (x,y) has been revealed */
+    public boolean isRevealed(final int x, final int y) { return (cell( x, y ) & REVEALED_BIT) != 0;}
+
+    /** @return true if the <code>Square</code> at (x,y) has a flag */
+    public boolean hasFlag(final int x, final int y) { return (cell( x, y ) & FLAG_BIT) != 0;}
+
+    /** @return true if the <code>Square</code> at (x,y) has a question mark */
+    public boolean hasQmark(final int x, final int y) { return (cell( x, y ) & QMARK_BIT) != 0;}
+
+    /** @return the number of mines adjacent to the <code>Square</code> at (x,y) */
+    public int getMinecount(final int x, final int y) { return bits( x, y ) & COUNT_MASK;}
+
+    /** @return index of the chunk containing (x,y) */
+    private int chunkIndex(final int x, final int y) { return (y >>> CHUNK_BITS) * chunkCols + (x >>> CHUNK_BITS);}
+
+    /** @return index of the <code>Square</code> at (x,y) within its chunk */
+    private static int offset(final int x, final int y) { return ((y & CHUNK_MASK) << CHUNK_BITS) | (x & CHUNK_MASK);}
+
+    /** @return packed bits of the <code>Square</code> at (x,y), counting its chunk if necessary */
+    private int bits(final int x, final int y) { return touch( x, y )[offset( x, y )] & 0xFF;}
+
+    /**
+     * set the given bits of the <code>Square</code> at (x,y) - does NOT need the mine layout
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @param bits - to set
+     */
+    private void set(final int x, final int y, final int bits) { cells( x, y )[offset( x, y )] |= bits;}
+
+    /**
+     * clear the given bits of the <code>Square</code> at (x,y) - does NOT need the mine layout
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @param bits - to clear
+     */
+    private void clear(final int x, final int y, final int bits) { cells( x, y )[offset( x, y )] &= ~bits;}
+    //@formatter:on
+
+    /**
+     * Read the packed bits of a <code>Square</code> WITHOUT allocating anything or laying mines - a <code>Square</code> in an
+     * untouched chunk reads as hidden with no count, but every revealed <code>Square</code> has a valid count
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return packed bits
+     * @see #COUNT_MASK
+     */
+    public int cell(final int x, final int y) {
+        Chunk $chunk = chunks[chunkIndex( x, y )];
+        return ($chunk == null || $chunk.cells == null) ? 0 : $chunk.cells[offset( x, y )] & 0xFF;
+    }
+
+    /**
+     * Get the frontier, i.e. the hidden <code>Squares</code> next to revealed numbers - flagged <code>Squares</code> are
+     * included, so callers which only want undecided <code>Squares</code> should skip those with {@link #hasFlag(int, int)}
+     * <br>
+     * - costs O(frontier), however big the field is
+     * @return field indices (y * width + x) of the frontier <code>Squares</code>, in no particular order
+     */
+    public int[] getFrontier() {
+        compactFrontier();
+        return Arrays.copyOf( frontier, frontierLength );
+    }
+
+    /**
+     * Clear any active question marks
+     * @return true if any question marks were removed
+     */
+    public boolean clearQmarks() {
+        boolean $haveQmarks = false;
+
+        for( Chunk $chunk : chunks )
+            if( $chunk != null && $chunk.cells != null )
+                for( int i = 0; i < $chunk.cells.length; i++ )
+                    if( ($chunk.cells[i] & QMARK_BIT) != 0 ) {
+                        $chunk.cells[i] &= ~QMARK_BIT;
+                        $haveQmarks = true;
+                    }
+
+        return $haveQmarks;
+    }
+
+    /**
+     * @param cx - chunk column
+     * @param cy - chunk row
+     * @return the chunk, creating it EMPTY if this is the first time it is needed
+     */
+    private Chunk chunk(final int cx, final int cy) {
+        int ci = cy * chunkCols + cx;
+        Chunk $chunk = chunks[ci];
+        if( $chunk == null ) {
+            $chunk = new Chunk();
+            chunks[ci] = $chunk;
+        }
+        return $chunk;
+    }
+
+    /**
+     * @param cx - chunk column
+     * @param cy - chunk row
+     * @return the mines of the chunk, laid if this is the first time they are needed
+     */
+    private long[] mines(final int cx, final int cy) {
+        Chunk $chunk = chunk( cx, cy );
+        if( $chunk.mines == null ) {
+            laid = true;
+            $chunk.mines = new long[CHUNK_SIZE];
+            layMines( $chunk, cx, cy );
+        }
+        return $chunk.mines;
+    }
+
+    /**
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return the packed <code>Squares</code> of the chunk containing (x,y), allocated WITHOUT counts if this is the first
+     *         time the chunk is touched
+     */
+    private byte[] cells(final int x, final int y) {
+        Chunk $chunk = chunk( x >>> CHUNK_BITS, y >>> CHUNK_BITS );
+        if( $chunk.cells == null ) $chunk.cells = new byte[CHUNK_SIZE * CHUNK_SIZE];
+        return $chunk.cells;
+    }
+
+    /**
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return the packed <code>Squares</code> of the chunk containing (x,y), allocated and counted if this is the first
+     *         time the counts are needed
+     */
+    private byte[] touch(final int x, final int y) {
+        int cx = x >>> CHUNK_BITS, cy = y >>> CHUNK_BITS;
+        Chunk $chunk = chunk( cx, cy );
+        if( !$chunk.counted ) count( $chunk, cx, cy );
+        return $chunk.cells;
+    }
+
+    /**
+     * @param cx - chunk column
+     * @param cy - chunk row
+     * @return number of mines in all the chunks before (cx,cy), row by row
+     */
+    private long minesBefore(final int cx, final int cy) {
+        long $rows = Math.min( CHUNK_SIZE, fieldHeight - (cy << CHUNK_BITS) );
+        long $cells = ((long) cy << CHUNK_BITS) * fieldWidth + $rows * Math.min( cx << CHUNK_BITS, fieldWidth );
+        return sharedMines * $cells / ((long) fieldWidth * fieldHeight);
+    }
+
+    /**
+     * @param ci - chunk index
+     * @return a well-mixed seed for the chunk in the current game (the MurmurHash3 64-bit finalizer)
+     */
+    private long chunkSeed(final int ci) {
+        long z = seed + (ci + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Randomly seed a chunk with its share of {@link #totalMines}, using Floyd's sampling over the chunk's
+     * <code>Squares</code><br>
+     * - each chunk gets mines in proportion to its area and its own seed, so chunks can be laid in any order and each
+     * step picks one new mine<br>
+     * - <code>Squares</code> in the safe opening area are skipped; if that leaves too little room for the chunk's share the
+     * game simply has fewer mines
+     * @param chunk - to seed
+     * @param cx - chunk column
+     * @param cy - chunk row
+     */
+    private void layMines(final Chunk chunk, final int cx, final int cy) {
+        int $wd = Math.min( CHUNK_SIZE, fieldWidth - (cx << CHUNK_BITS) );
+        int $ht = Math.min( CHUNK_SIZE, fieldHeight - (cy << CHUNK_BITS) );
+        int $count = (int) (minesBefore( cx + 1, cy ) - minesBefore( cx, cy ));
+
+        // local indices of the safe Squares in this chunk, in ascending order
+        int[] $safe = new int[9];
+        int $numSafe = 0;
+        if( safeZone )
+            for( int v = safey - 1; v <= safey + 1; v++ )
+                for( int u = safex - 1; u <= safex + 1; u++ ) {
+                    int lu = u - (cx << CHUNK_BITS), lv = v - (cy << CHUNK_BITS);
+                    if( lu >= 0 && lu < $wd && lv >= 0 && lv < $ht ) $safe[$numSafe++] = lv * $wd + lu;
+                }
+
+        int $size = $wd * $ht - $numSafe;
+        if( $count > $size ) {
+            totalMines -= $count - $size;
+            hiddenMines -= $count - $size;
+            $count = $size;
+        }
+
+        SplittableRandom $random = new SplittableRandom( chunkSeed( cy * chunkCols + cx ) );
+        long[] $mines = chunk.mines;
+        int t, k;
+        for( int j = $size - $count; j < $size; j++ ) {
+            t = $random.nextInt( j + 1 );
+            if( isLaid( $mines, skip( t, $safe, $numSafe ), $wd ) ) t = j; // already chosen: take j, which cannot be
+            k = skip( t, $safe, $numSafe );
+            $mines[k / $wd] |= 1L << (k % $wd);
+        }
+    }
+
+    /**
+     * @param t - index among the chunk's Squares that are NOT safe
+     * @param safe - ascending local indices of the safe Squares
+     * @param numSafe - number of entries in <var>safe</var>
+     * @return local index of the <var>t</var>th Square that is NOT safe
+     */
+    private static int skip(final int t, final int[] safe, final int numSafe) {
+        int k = t;
+        for( int i = 0; i < numSafe && safe[i] <= k; i++ )
+            k++;
+        return k;
+    }
+
+    /**
+     * @param mines - chunk mine words
+     * @param k - local index of a Square
+     * @param wd - width of the chunk
+     * @return true if a mine has been laid at <var>k</var>
+     */
+    private static boolean isLaid(final long[] mines, final int k, final int wd) {
+        return (mines[k / wd] & (1L << (k % wd))) != 0;
+    }
+
+    /**
+     * @param cx - chunk column
+     * @param y - row of the field
+     * @return the mines of chunk column <var>cx</var> in row <var>y</var>, or zero outside the field
+     */
+    private long mineWord(final int cx, final int y) {
+        if( cx < 0 || cx >= chunkCols || y < 0 || y >= fieldHeight ) return 0L;
+        return mines( cx, y >>> CHUNK_BITS )[y & CHUNK_MASK];
+    }
+
+    /**
+     * @param cx - chunk column
+     * @param y - row of the field
+     * @param c - value of that mine word
+     * @return mine word in which each bit is set if the <code>Square</code> to its LEFT has a mine
+     */
+    private long shiftLeft(final int cx, final int y, final long c) {
+        return (c << 1) | (mineWord( cx - 1, y ) >>> 63);
+    }
+
+    /**
+     * @param cx - chunk column
+     * @param y - row of the field
+     * @param c - value of that mine word
+     * @return mine word in which each bit is set if the <code>Square</code> to its RIGHT has a mine
+     */
+    private long shiftRight(final int cx, final int y, final long c) {
+        return (c >>> 1) | (mineWord( cx + 1, y ) << 63);
+    }
+
+    /**
+     * Set the minecount bits of the packed <code>Squares</code> of a chunk, allocating them if necessary.<br>
+     * - this is the total number of mines in all neighbouring <code>Squares</code><br>
+     * - works a row at a time on the 64 <code>Squares</code> of the chunk: the eight neighbour bitboards are formed by
+     * shifting the mine words above, below and at each row, and added with bit-sliced adders into four count planes
+     * @param chunk - to count
+     * @param cx - chunk column
+     * @param cy - chunk row
+     */
+    private void count(final Chunk chunk, final int cx, final int cy) {
+        byte[] $cells = cells( cx << CHUNK_BITS, cy << CHUNK_BITS );
+        long[] $mines = mines( cx, cy );
+        int $wd = Math.min( CHUNK_SIZE, fieldWidth - (cx << CHUNK_BITS) );
+        int $ht = Math.min( CHUNK_SIZE, fieldHeight - (cy << CHUNK_BITS) );
+        long $up0, $up1, $mid0, $mid1, $dn0, $dn1, $sum0, $carry, $bit1, $k1, $k2;
+        long b0, b1, b2, b3, c, l, r;
+        int x, y, base;
+
+        for( int j = 0; j < $ht; j++ ) {
+            y = (cy << CHUNK_BITS) + j;
+
+            // upper and lower rows contribute left, centre and right neighbours: a 2-bit sum each
+            c = mineWord( cx, y - 1 );
+            l = shiftLeft( cx, y - 1, c );
+            r = shiftRight( cx, y - 1, c );
+            $up0 = l ^ c ^ r;
+            $up1 = (l & c) | (r & (l ^ c));
+
+            c = mineWord( cx, y + 1 );
+            l = shiftLeft( cx, y + 1, c );
+            r = shiftRight( cx, y + 1, c );
+            $dn0 = l ^ c ^ r;
+            $dn1 = (l & c) | (r & (l ^ c));
+
+            // the Square's own row contributes only left and right neighbours
+            c = $mines[j];
+            l = shiftLeft( cx, y, c );
+            r = shiftRight( cx, y, c );
+            $mid0 = l ^ r;
+            $mid1 = l & r;
+
+            // add the three 2-bit sums (max 3 + 2 + 3 = 8) into planes b0..b3
+            $sum0 = $up0 ^ $mid0 ^ $dn0;
+            $carry = ($up0 & $mid0) | ($dn0 & ($up0 ^ $mid0));
+            $bit1 = $up1 ^ $mid1 ^ $dn1;
+            $k1 = ($up1 & $mid1) | ($dn1 & ($up1 ^ $mid1));
+            $k2 = $bit1 & $carry;
+            b0 = $sum0;
+            b1 = $bit1 ^ $carry;
+            b2 = $k1 ^ $k2;
+            b3 = $k1 & $k2;
+
+            // unpack the planes into the count nibbles
+            base = j << CHUNK_BITS;
+            for( x = 0; x < $wd; x++ )
+                $cells[base + x] |= (byte) (((b0 >>> x) & 1L) | (((b1 >>> x) & 1L) << 1) | (((b2 >>> x) & 1L) << 2)
+                                | (((b3 >>> x) & 1L) << 3));
+        }
+        chunk.counted = true;
+    }
+
+    /** Start a new move, with no <code>Squares</code> changed yet */
+    private void beginMove() {
+        revealCount = scoreDelta = changeCount = 0;
+    }
+
+    /**
+     * record a <code>Square</code> changed by the current move, growing {@link #changes} if necessary
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     */
+    private void addChange(final int x, final int y) {
+        if( changeCount == changes.length ) changes = Arrays.copyOf( changes, changes.length * 2 );
+        changes[changeCount++] = index( x, y );
+    }
+
+    /**
+     * Finish a move: add its changes to the game totals and gather them into one result
+     * @param outcome - code of the move
+     * @return result of the move
+     */
+    private MoveResult result(final int outcome) {
+        settled += scoreDelta;
+        return new MoveResult( outcome, revealCount, scoreDelta, isWon() );
+    }
+
+    /**
+     * Reveal a single <code>Square</code> and count it - a flag on a revealed <code>Square</code> is removed
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     */
+    private void setRevealed(final int x, final int y) {
+        int $bits = bits( x, y );
+        if( ($bits & FLAG_BIT) != 0 ) {
+            clear( x, y, FLAG_BIT );
+            hiddenMines++;
+            scoreDelta--; // the flag was already scored
+        }
+        if( ($bits & FRONTIER_BIT) != 0 ) {
+            clear( x, y, FRONTIER_BIT ); // the entry in the frontier list is dropped later
+            frontierCount--;
+        }
+        set( x, y, REVEALED_BIT );
+        addChange( x, y );
+        revealCount++;
+        scoreDelta++;
+
+        if( ($bits & COUNT_MASK) != 0 ) extendFrontier( x, y );
+    }
+
+    /**
+     * Add the hidden neighbours of a newly revealed number to the frontier
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     */
+    private void extendFrontier(final int x, final int y) {
+        byte[] $cells;
+        int $offset;
+        for( int v = Math.max( 0, y - 1 ); v <= Math.min( fieldHeight - 1, y + 1 ); v++ )
+            for( int u = Math.max( 0, x - 1 ); u <= Math.min( fieldWidth - 1, x + 1 ); u++ ) {
+                $cells = cells( u, v );
+                $offset = offset( u, v );
+                if( ($cells[$offset] & (REVEALED_BIT | FRONTIER_BIT)) == 0 ) {
+                    $cells[$offset] |= FRONTIER_BIT;
+                    pushFrontier( index( u, v ) );
+                }
+            }
+    }
+
+    /**
+     * add a <code>Square</code> to the {@link #frontier} list, compacting or growing it if it is full
+     * @param idx - field index
+     */
+    private void pushFrontier(final int idx) {
+        if( frontierLength == frontier.length ) {
+            if( frontierCount < frontierLength / 2 )
+                compactFrontier();
+            else
+                frontier = Arrays.copyOf( frontier, frontier.length * 2 );
+        }
+        frontier[frontierLength++] = idx;
+        frontierCount++;
+    }
+
+    /** drop the entries of <code>Squares</code> which have left the frontier since they were added */
+    private void compactFrontier() {
+        int $kept = 0, idx;
+        for( int i = 0; i < frontierLength; i++ ) {
+            idx = frontier[i];
+            if( (cell( idx % fieldWidth, idx / fieldWidth ) & FRONTIER_BIT) != 0 ) frontier[$kept++] = idx;
+        }
+        frontierLength = $kept;
+    }
+
+    /**
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return true if the <code>Square</code> is hidden and NOT adjacent to any mines
+     */
+    private boolean isHiddenBlank(final int x, final int y) {
+        return (bits( x, y ) & (REVEALED_BIT | COUNT_MASK)) == 0;
+    }
+
+    /**
+     * add a <code>Square</code> to the {@link #seeds} work queue, growing it if necessary
+     * @param idx - field index
+     */
+    private void pushSeed(final int idx) {
+        if( seedCount == seeds.length ) {
+            int[] $bigger = new int[seeds.length * 2];
+            System.arraycopy( seeds, 0, $bigger, 0, seedCount );
+            seeds = $bigger;
+        }
+        seeds[seedCount++] = idx;
+    }
+
+    /**
+     * Find and reveal all attached blank <code>Squares</code> and their numbered borders, starting from a hidden blank
+     * <code>Square</code><br>
+     * - a scan-line fill: each horizontal span of blank <code>Squares</code> is revealed in one pass, then the rows above
+     * and below it are scanned once, revealing numbers and queueing one seed for each run of blank <code>Squares</code><br>
+     * - iterative, with the work queue re-used between moves, so there is no limit on the size of the area
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return number of <code>Squares</code> newly revealed
+     */
+    private int clearOut(final int x, final int y) {
+        int $start = revealCount;
+        int idx, u, v, $left, $right, i;
+
+        seedCount = 0;
+        pushSeed( index( x, y ) );
+
+        while( seedCount > 0 ) {
+            idx = seeds[--seedCount];
+            v = idx / fieldWidth;
+            u = idx - v * fieldWidth;
+            if( (bits( u, v ) & REVEALED_BIT) != 0 ) continue; // span was already cleared from another seed
+
+            // extend the span of blank Squares left and right
+            $left = u;
+            $right = u;
+            while( $left > 0 && isHiddenBlank( $left - 1, v ) )
+                $left--;
+            while( $right < fieldWidth - 1 && isHiddenBlank( $right + 1, v ) )
+                $right++;
+
+            // add the numbered Squares at each end
+            if( $left > 0 ) $left--;
+            if( $right < fieldWidth - 1 ) $right++;
+
+            for( i = $left; i <= $right; i++ )
+                if( (bits( i, v ) & REVEALED_BIT) == 0 ) setRevealed( i, v );
+
+            if( v > 0 ) scanRow( v - 1, $left, $right );
+            if( v < fieldHeight - 1 ) scanRow( v + 1, $left, $right );
+
+        }
+
+        return revealCount - $start;
+    }
+
+    /**
+     * Reveal the numbered <code>Squares</code> in part of a row adjacent to a cleared span, and queue a seed for each run of
+     * blank <code>Squares</code>
+     * @param v - row to scan
+     * @param left - first column
+     * @param right - last column
+     */
+    private void scanRow(final int v, final int left, final int right) {
+        boolean $inRun = false;
+
+        for( int i = left; i <= right; i++ ) {
+            if( isHiddenBlank( i, v ) ) {
+                if( !$inRun ) pushSeed( index( i, v ) );
+                $inRun = true;
+            } else {
+                if( (bits( i, v ) & REVEALED_BIT) == 0 ) setRevealed( i, v );
+                $inRun = false;
+            }
+        }
+    }
+
+    /**
+     * Reveal a hidden <code>Square</code>, clearing out all attached blank space<br>
+     * - the first reveal of a game fixes the mine layout, keeping the 3x3 area around (x,y) free of mines
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return result of the move
+     */
+    public MoveResult reveal(final int x, final int y) {
+        beginMove();
+        if( !inField( x, y ) ) return result( IGNORED );
+        if( (cells( x, y )[offset( x, y )] & (REVEALED_BIT | FLAG_BIT | QMARK_BIT)) != 0 ) return result( IGNORED );
+
+        if( !laid ) {
+            safex = x;
+            safey = y;
+            safeZone = true;
+        }
+        int $bits = bits( x, y );
+
+        if( hasMine( x, y ) ) {
+            // game over
+            destroyed = true;
+            lossx = x;
+            lossy = y;
+            return result( EXPLODED );
+        }
+
+        if( ($bits & COUNT_MASK) == 0 )
+            clearOut( x, y );
+        else
+            setRevealed( x, y );
+
+        return result( REVEALED );
+    }
+
+    /**
+     * Clear around a revealed numbered <code>Square</code><br>
+     * - if all adjacent mines are properly flagged, will reveal all adjacent squares - including showing ALL attached blank
+     * space
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return result of the move
+     */
+    public MoveResult chord(final int x, final int y) {
+        int $flagcount = 0, $revealcount = 0, $minecount, $bits, i, j;
+        beginMove();
+        if( !inField( x, y ) ) return result( IGNORED );
+
+        $bits = bits( x, y );
+        if( ($bits & REVEALED_BIT) == 0 || ($bits & COUNT_MASK) == 0 ) return result( IGNORED );
+
+        $minecount = $bits & COUNT_MASK;
+
+        int left = (x == 0 ? 0 : x - 1);
+        int right = (x == fieldWidth - 1 ? x : x + 1);
+        int top = (y == 0 ? 0 : y - 1);
+        int bottom = (y == fieldHeight - 1 ? y : y + 1);
+
+        for( j = top; j <= bottom; j++ )
+            for( i = left; i <= right; i++ ) {
+                $bits = bits( i, j );
+                if( ($bits & FLAG_BIT) != 0 ) {
+                    $flagcount++;
+                    /* game over if try to clear in vicinity of an incorrect flag */
+                    if( !hasMine( i, j ) ) {
+                        badClear = true;
+                        lossx = i;
+                        lossy = j;
+                        return result( BAD_CLEAR );
+                    }
+                }
+                if( ($bits & REVEALED_BIT) != 0 ) $revealcount++;
+            }
+
+        // how many squares in our adjacency grid?
+        int gridsize = (right - left + 1) * (bottom - top + 1);
+        // all adjacent squares except mines are already revealed
+        boolean opengrid = ($revealcount == (gridsize - $minecount));
+
+        if( ($flagcount == $minecount) && !opengrid ) {
+            for( j = top; j <= bottom; j++ )
+                for( i = left; i <= right; i++ ) {
+                    $bits = bits( i, j );
+                    if( ($bits & REVEALED_BIT) == 0 && !hasMine( i, j ) ) {
+                        if( ($bits & COUNT_MASK) == 0 )
+                            clearOut( i, j );
+                        else
+                            setRevealed( i, j );
+                    }
+                }
+        }
+
+        return result( REVEALED );
+    }
+
+    /**
+     * Add or remove a flag on a hidden <code>Square</code> - adding a flag removes any question mark
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return result of the move
+     */
+    public MoveResult toggleFlag(final int x, final int y) {
+        beginMove();
+        if( !inField( x, y ) ) return result( IGNORED );
+
+        int $bits = cells( x, y )[offset( x, y )];
+        if( ($bits & REVEALED_BIT) != 0 ) return result( IGNORED );
+
+        if( ($bits & FLAG_BIT) != 0 ) {
+            clear( x, y, FLAG_BIT );
+            addChange( x, y );
+            hiddenMines++;
+            scoreDelta--;
+            return result( UNFLAGGED );
+        }
+
+        clear( x, y, QMARK_BIT );
+        set( x, y, FLAG_BIT );
+        addChange( x, y );
+        hiddenMines--;
+        scoreDelta++;
+        return result( FLAGGED );
+    }
+
+    /**
+     * Add or remove a question mark on a hidden, un-flagged <code>Square</code>
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @param allowed - if false, an existing question mark may be removed but a new one will not be added
+     * @return result of the move
+     */
+    public MoveResult toggleQmark(final int x, final int y, final boolean allowed) {
+        beginMove();
+        if( !inField( x, y ) ) return result( IGNORED );
+
+        int $bits = cells( x, y )[offset( x, y )];
+        if( ($bits & (REVEALED_BIT | FLAG_BIT)) != 0 ) return result( IGNORED );
+
+        if( ($bits & QMARK_BIT) != 0 ) {
+            clear( x, y, QMARK_BIT );
+            addChange( x, y );
+            return result( UNQMARKED );
+        }
+
+        if( !allowed ) return result( IGNORED );
+
+        set( x, y, QMARK_BIT );
+        addChange( x, y );
+        return result( QMARKED );
+    }
+
+    /**
+     * Put a mine on a hidden <code>Square</code> - the layout is fixed first if necessary<br>
+     * - the revealed <code>Squares</code> whose counts change are the changes of the edit, as for a move
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return true if a mine was added
+     * @see #editMine(int, int, int)
+     */
+    public boolean addMine(final int x, final int y) {
+        if( !inField( x, y ) || hasMine( x, y ) || (cell( x, y ) & REVEALED_BIT) != 0 ) return false;
+
+        beginMove();
+        editMine( x, y, 1 );
+        return true;
+    }
+
+    /**
+     * Take the mine off a <code>Square</code> - the layout is fixed first if necessary<br>
+     * - the revealed <code>Squares</code> whose counts change are the changes of the edit, as for a move
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return true if a mine was removed
+     * @see #editMine(int, int, int)
+     */
+    public boolean removeMine(final int x, final int y) {
+        if( !inField( x, y ) || !hasMine( x, y ) ) return false;
+
+        beginMove();
+        editMine( x, y, -1 );
+        return true;
+    }
+
+    /**
+     * Move a mine to a hidden <code>Square</code> without a mine - the number of mines does not change<br>
+     * - the revealed <code>Squares</code> whose counts change are the changes of the edit, as for a move
+     * @param fromx - horizontal co-ordinate of the mine
+     * @param fromy - vertical co-ordinate of the mine
+     * @param tox - horizontal co-ordinate of the destination
+     * @param toy - vertical co-ordinate of the destination
+     * @return true if the mine was moved
+     * @see #editMine(int, int, int)
+     */
+    public boolean moveMine(final int fromx, final int fromy, final int tox, final int toy) {
+        if( !inField( fromx, fromy ) || !inField( tox, toy ) ) return false;
+        if( !hasMine( fromx, fromy ) || hasMine( tox, toy ) || (cell( tox, toy ) & REVEALED_BIT) != 0 ) return false;
+
+        beginMove();
+        editMine( fromx, fromy, -1 );
+        editMine( tox, toy, 1 );
+
+        // a Square next to both ends was recorded by each edit: keep it once
+        Arrays.sort( changes, 0, changeCount );
+        int $kept = 0;
+        for( int i = 0; i < changeCount; i++ )
+            if( $kept == 0 || changes[i] != changes[$kept - 1] ) changes[$kept++] = changes[i];
+        changeCount = $kept;
+        return true;
+    }
+
+    /**
+     * Flip the mine bit of a <code>Square</code> and adjust the counts of its (up to) 8 neighbours and the mine totals<br>
+     * - chunks which have not been counted yet will pick up the change from the mine words when they are<br>
+     * - a revealed neighbour whose count changes is recorded as changed: one which becomes a number adds its hidden
+     * neighbours to the frontier, and one whose count drops to 0 takes out of the frontier the hidden neighbours no
+     * other revealed number is next to - they are NOT revealed, as a move would have done
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @param delta - +1 if a mine is being added, -1 if one is being removed
+     */
+    private void editMine(final int x, final int y, final int delta) {
+        mines( x >>> CHUNK_BITS, y >>> CHUNK_BITS )[y & CHUNK_MASK] ^= 1L << (x & CHUNK_MASK);
+        totalMines += delta;
+        hiddenMines += delta;
+
+        Chunk $chunk;
+        for( int v = Math.max( 0, y - 1 ); v <= Math.min( fieldHeight - 1, y + 1 ); v++ )
+            for( int u = Math.max( 0, x - 1 ); u <= Math.min( fieldWidth - 1, x + 1 ); u++ ) {
+                if( u == x && v == y ) continue;
+
+                $chunk = chunks[chunkIndex( u, v )];
+                if( $chunk == null || !$chunk.counted ) continue;
+
+                int $bits = ($chunk.cells[offset( u, v )] += delta) & 0xFF;
+                if( ($bits & REVEALED_BIT) == 0 ) continue;
+
+                addChange( u, v );
+                if( ($bits & COUNT_MASK) == 0 )
+                    shrinkFrontier( u, v );
+                else if( ($bits & COUNT_MASK) == 1 && delta > 0 ) extendFrontier( u, v );
+            }
+    }
+
+    /**
+     * Take the hidden neighbours of a revealed <code>Square</code> which is no longer a number out of the frontier, unless
+     * another revealed number is next to them
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     */
+    private void shrinkFrontier(final int x, final int y) {
+        for( int v = Math.max( 0, y - 1 ); v <= Math.min( fieldHeight - 1, y + 1 ); v++ )
+            for( int u = Math.max( 0, x - 1 ); u <= Math.min( fieldWidth - 1, x + 1 ); u++ )
+                if( (cell( u, v ) & FRONTIER_BIT) != 0 && !nextToNumber( u, v ) ) {
+                    clear( u, v, FRONTIER_BIT ); // the entry in the frontier list is dropped later
+                    frontierCount--;
+                }
+    }
+
+    /**
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return true if a revealed number is next to the <code>Square</code>
+     */
+    private boolean nextToNumber(final int x, final int y) {
+        int $bits;
+        for( int v = Math.max( 0, y - 1 ); v <= Math.min( fieldHeight - 1, y + 1 ); v++ )
+            for( int u = Math.max( 0, x - 1 ); u <= Math.min( fieldWidth - 1, x + 1 ); u++ ) {
+                $bits = cell( u, v );
+                if( ($bits & REVEALED_BIT) != 0 && ($bits & COUNT_MASK) != 0 ) return true;
+            }
+        return false;
+    }
+
+    /*
+     *     INNER CLASSES
+     * ========================================================================================= */
+
+    /** A {@link #CHUNK_SIZE} x {@link #CHUNK_SIZE} block of the field */
+    static final class Chunk {
+        /** one word of mines per row of the chunk, bit (x % 64) for column x - null until the mines are laid */
+        long[] mines;
+
+        /** one packed byte per <code>Square</code>, row by row - null until the chunk is first touched */
+        byte[] cells;
+
+        /** true once the minecount bits of {@link #cells} have been set */
+        boolean counted;
+    }/* inner class Chunk */
+
+}/* class MineEngine */
@@ -17,14 +17,27 @@
 package mhs.mineswinger;
 
 import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JLabel;
+import javax.swing.JScrollPane;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 
 /**
@@ -33,7 +46,7 @@ import javax.swing.Timer;
  * @author MARK SATTOLO (based on code by Mats Antell)
  * @version $Revision: #13 $
  */
-class MineField extends JLabel implements MouseListener {
+class MineField extends JLabel implements MouseListener, MouseWheelListener, Scrollable {
     /*
      *     FIELDS
      * ===================================================================================================================== */
@@ -41,13 +54,16 @@ class MineField extends JLabel implements MouseListener {
     /** Keep the compiler from complaining... */
     private static final long serialVersionUID = -9210718514352269566L;
     //@formatter:off
-    static final boolean PLUS = true, // indicate if score should increase
-                         MINUS = false; // or decrease
-
     /** # of animation 'frames' in the explosion */
     static final int EXPLODE_INDEX = 9;
     /** pause (msec) between each explosion 'frame' */
     static final int EXPLODE_DELAY = 120;
+    /** the explosion frames cover this many <code>Squares</code> across and down, from one Square above and left of the mine */
+    static final int EXPLODE_WIDTH = 4,
+                     EXPLODE_HEIGHT = 3;
+
+    /** most rectangles of changed Squares repainted one by one - beyond this their bounding box is repainted */
+    static final int MAX_CHANGE_RECTS = 64;
 
     /** #s 1-8 are for <code>Squares</code> adjacent to mines */
     static final int MINE = 9, 
@@ -69,17 +85,8 @@ class MineField extends JLabel implements MouseListener {
                     COLOR_NUM4 = Color.black, COLOR_NUM5 = Color.magenta, COLOR_NUM6 = Color.yellow, COLOR_NUM7 = Color.cyan,
                     COLOR_NUM8 = Color.orange.darker();
 
-    private int DEBUG_LEVEL;
-
-    private double density = MineSwinger.DEFAULT_DENSITY;
-
-    /** number of mines remaining to be flagged in the current game */
-    private int hiddenMines;
-    /** total number of mines, hidden or flagged, set in the current game */
-    private int totalMines;
-
-    /** number of <code>Squares</code> on each side of the 2D mine array */
-    private int fieldLength;
+    /** number of <code>Squares</code> across and down the mine array for the next game */
+    private int fieldWidth, fieldHeight;
     /** length of sides (in pixels) of each individual <code>Square</code> */
     private int squareLength;
 
@@ -89,11 +96,48 @@ class MineField extends JLabel implements MouseListener {
     /** reference to the enclosing class */
     private MineSwinger gameview;
 
-    /** 2D array of individual mine <code>Squares</code> */
-    private Square[][] mine2dArray;
+    /** runs the game rules and owns the mine array */
+    private EngineThread worker;
+
+    /** number of the current game - results from earlier games are dropped */
+    private int generation;
+
+    /** the <code>Squares</code> as of the latest {@link ChangeSet} - painting reads these, never the engine */
+    private FieldCells cells = new FieldCells();
+
+    /** the engine of a lost game, handed over to show the mines - null while the game is on */
+    private MineEngine finished;
+
+    /** mines left to flag, and in all, as of the latest {@link ChangeSet} */
+    private int hiddenMines, totalMines;
+
+    /** mine density of the current game, or for the next game once changed */
+    private double density = MineSwinger.DEFAULT_DENSITY;
+
+    /** pre-rendered images of each type of <code>Square</code> */
+    private SquareTiles tiles;
+
+    /** offscreen image of the field, redrawn only where <code>Squares</code> change */
+    private FieldBuffer buffer;
 
-    private boolean firstScan, destroyed, cleared, badClear,
-                    firstPress = true, paintAll = true,
+    /** timing of every paint and move */
+    private final RenderStats stats = new RenderStats();
+
+    /** no <code>Squares</code> changed */
+    private static final ChangeArea NO_CHANGES = new ChangeArea();
+
+    /** the <code>Squares</code> changed by the latest move, waiting to be repainted */
+    private ChangeArea changes = NO_CHANGES;
+
+    /** the render thread view showing this field in active rendering mode - null when Swing paints it */
+    private volatile ActiveField active;
+
+    /** the explosion frames, drawn once for each <code>Square</code> size and screen scale - null until first needed */
+    private BufferedImage[] blasts = new BufferedImage[EXPLODE_INDEX];
+
+    private boolean destroyed, badClear,
+                    firstPress = true,
+                    listening = false,
                     lightup = false, shaded = false;
     //@formatter:on
     /**
@@ -119,15 +163,23 @@ class MineField extends JLabel implements MouseListener {
      * @param game - reference to the enclosing {@link MineSwinger}
      */
     MineField(final MineSwinger game) {
-        DEBUG_LEVEL = game.DEBUG_LEVEL;
-        if( DEBUG_LEVEL > 0 ) System.out.println( myname() + Msgs.str( "debug_level" ) + DEBUG_LEVEL );
-
         gameview = game;
         squareLength = MineSwinger.FIELD_SIZE_MD;
-        reset( MineSwinger.FIELD_SIZE_MD );
+        fieldWidth = fieldHeight = MineSwinger.FIELD_SIZE_MD;
+        worker = new EngineThread( this );
+        tiles = new SquareTiles( squareLength, new Runnable() {
+            @Override
+            public void run() {
+                tilesReady();
+            }
+        });
+        buffer = new FieldBuffer( this, tiles, squareLength );
+        worker.newGame( generation, fieldWidth, fieldHeight, density );
+        reset();
 
         setFont( MineSwinger.fontMEDIUM );
-        setLocation( MineSwinger.X_BORDER, MineSwinger.Y_BORDER / 2 );
+        setOpaque( true ); // the buffer covers every pixel, so the viewport can blit when scrolling
+        addMouseWheelListener( this );
 
         listener = new ExplodeListener();
         exploder = new Timer( EXPLODE_DELAY, listener );
@@ -139,42 +191,46 @@ class MineField extends JLabel implements MouseListener {
     }
 
     /**
-     * Reset the mine array
-     * @see #reset(int)
+     * Reset the mine array - the new game is set up on the engine thread
+     * @see #reset()
      */
-    void newGame() {
+    synchronized void newGame() {
         firstPress = true;
         gameview.validate();
         if( exploder.isRunning() ) exploder.stop();
-        reset( fieldLength );
+        worker.newGame( ++generation, fieldWidth, fieldHeight, density );
+        reset();
     }
 
     /**
-     * Set the initial variables
-     * @param len - field length
-     * @see #layMines()
-     * @see #count()
+     * Set the initial variables, with every <code>Square</code> hidden
+     * @see EngineThread#newGame(int, int, int, double)
      */
-    private void reset(int len) {
-        fieldLength = len;
-        setSize( fieldLength * squareLength, fieldLength * squareLength );
+    private void reset() {
+        fitSize();
+        buffer.setFieldSize( fieldWidth, fieldHeight );
+        cells.reset( fieldWidth, fieldHeight );
+        finished = null;
 
-        hiddenMines = 0;
-        totalMines = (int) (density * fieldLength * fieldLength);
-        // make the laying mines loop easier in case of zero density
-        if( totalMines < 1 ) {
-            totalMines = 1;
-            density = 1.0 / (fieldLength * fieldLength);
-        }
-        System.out.println( "totalMines = " + totalMines );
-        System.out.println( "density = " + density );
-
-        layMines();
-        cleared = badClear = destroyed = false;
-        count();
+        badClear = destroyed = false;
 
         setBackground( COLOR_DARK );
-        addMouseListener( this );
+        setListening( true );
+    }
+
+    /**
+     * Start or stop taking moves from the mouse - a finished game takes none, in either rendering mode
+     * @param on - true to take moves
+     * @see ActiveField#mousePressed(MouseEvent)
+     */
+    void setListening(final boolean on) {
+        if( on == listening ) return;
+
+        listening = on;
+        if( on )
+            addMouseListener( this );
+        else
+            removeMouseListener( this );
     }
 
     //@formatter:off
@@ -186,11 +242,11 @@ class MineField extends JLabel implements MouseListener {
     void playSound(final int snd) { gameview.playSound( snd );}
 
     /**
-     * have <code>MineSwinger</code> adjust the score
-     * @param plus - increase or decrease the score
-     * @see MineSwinger#setScore(boolean)
+     * have <code>MineSwinger</code> adjust the score and counters ONCE for a move
+     * @param move - result of the move
+     * @see MineSwinger#setScore(MoveResult)
      */
-    void setScore(final boolean plus) { gameview.setScore( plus );}
+    void setScore(final MoveResult move) { gameview.setScore( move );}
 
     /**
      * have <code>MineSwinger</code> display a message
@@ -222,144 +278,221 @@ class MineField extends JLabel implements MouseListener {
     /** @param state - new value for {@link #firstPress} */
     void setFirstPress(final boolean state) { firstPress = state;}
 
+    /** @return {@link #listening} */
+    boolean isListening() { return listening;}
+
     /** @return density */
     double getDensity() { return density;}
 
     /**
-     * change current mine density
+     * change mine density for the next game
      * @param dens - to set
      */
     void setDensity(final double dens) { density = dens;}
 
-    /** @return {@link #fieldLength} */
-    int getFieldLength() { return fieldLength;}
+    /** @return {@link #fieldWidth} */
+    int getFieldWidth() { return fieldWidth;}
+
+    /** @return {@link #fieldHeight} */
+    int getFieldHeight() { return fieldHeight;}
+
+    /** @return {@link #stats} */
+    RenderStats getStats() { return stats;}
 
     /** @return {@link #squareLength} */
     int getSquareLength() { return squareLength;}
     //@formatter:on
     /**
-     * change array length (number of <code>Squares</code> per side) and adjust overall array size
-     * @param len - new field length
-     * @return previous field length
+     * change array dimensions (number of <code>Squares</code> across and down) and adjust overall array size
+     * @param wd - new field width
+     * @param ht - new field height
      */
-    int setFieldLength(final int len) {
-        int $oldlen = fieldLength;
-        fieldLength = len;
-        setSize( squareLength * fieldLength, squareLength * fieldLength );
-        return $oldlen;
+    synchronized void setFieldSize(final int wd, final int ht) {
+        fieldWidth = wd;
+        fieldHeight = ht;
+        fitSize();
     }
 
     /**
      * change length (pixels) of each individual <code>Square</code> and adjust overall array size
      * @param side - square length
      */
-    void setSquareLength(final int side) {
+    synchronized void setSquareLength(final int side) {
         squareLength = side;
-        setSize( squareLength * fieldLength, squareLength * fieldLength );
+        tiles.setSquareLength( side );
+        buffer.setSquareLength( side );
+        blasts = new BufferedImage[EXPLODE_INDEX];
+        fitSize();
+    }
+
+    /** a new atlas for the current size and font was drawn in the background: draw the field again with it */
+    private synchronized void tilesReady() {
+        if( tiles.install() ) {
+            blasts = new BufferedImage[EXPLODE_INDEX];
+            repaintAll();
+        }
+    }
+
+    /** the preferred size is the whole field - the scroll pane or {@link ActiveField} shows the visible part */
+    private void fitSize() {
+        setPreferredSize( new Dimension( fieldWidth * squareLength, fieldHeight * squareLength ) );
+        setSize( getPreferredSize() );
+        revalidate();
+
+        ActiveField $active = active;
+        if( $active != null ) $active.fieldResized();
+    }
+
+    /** @see javax.swing.Scrollable#getPreferredScrollableViewportSize() */
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    /** @return one <code>Square</code> - see {@link javax.swing.Scrollable#getScrollableUnitIncrement} */
+    @Override
+    public int getScrollableUnitIncrement(final Rectangle visible, final int orientation, final int direction) {
+        return squareLength;
+    }
+
+    /** @return most of the visible part of the field - see {@link javax.swing.Scrollable#getScrollableBlockIncrement} */
+    @Override
+    public int getScrollableBlockIncrement(final Rectangle visible, final int orientation, final int direction) {
+        int $extent = (orientation == SwingConstants.HORIZONTAL) ? visible.width : visible.height;
+        return Math.max( squareLength, $extent - squareLength );
+    }
+
+    /** @return false: the field keeps its own size, and a viewport wider than the field shows its background */
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
     }
 
-    /** Clear any active question marks if user has de-activated them */
-    protected void clearQmarks() {
-        boolean $haveQmarks = false;
-        int i, j;
+    /** @return false: the field keeps its own size, and a viewport taller than the field shows its background */
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
 
-        for( i = 0; i < fieldLength; i++ )
-            for( j = 0; j < fieldLength; j++ ) {
-                if( mine2dArray[i][j].hasQmark() ) {
-                    if( DEBUG_LEVEL > 1 )
-                        System.out.println( myname() + Msgs.str( "Qmarks.clear" ) + "Square[" + i + "][" + j + "] "
-                                        + Msgs.str( "Qmark.has" ) );
+    /** Clear any active question marks if user has de-activated them - the field is repainted once the engine has */
+    protected synchronized void clearQmarks() {
+        worker.clearQmarks( generation );
+    }
+
+    /**
+     * Take in the result of an {@link EngineThread} command - called on the Event Dispatch Thread, in the same order as the
+     * commands<br>
+     * - copies the changed <code>Squares</code>, repaints them and updates the counters ONCE per move, with sounds and
+     * messages as appropriate
+     * @param set - result of the command
+     */
+    synchronized void apply(final ChangeSet set) {
+        if( set.getGame() != generation ) return; // a move in a game already replaced
+
+        hiddenMines = set.getNumHiddenMines();
+        totalMines = set.getNumTotalMines();
+
+        MoveResult $move = set.getMove();
+        if( $move == null ) {
+            if( set.getCommand() == EngineThread.CLEAR_QMARKS && cells.clearQmarks() ) {
+                Trace.event( Trace.QMARKS_CLEARED );
+                repaintAll();
+            } else if( set.getCommand() == EngineThread.NEW_GAME ) {
+                density = set.getDensity(); // may be raised to have at least one mine
+                Trace.event( Trace.NEW_GAME, totalMines, Math.round( density * 1e6 ), generation );
+                setMinesText( hiddenMines );
+            }
+            return;
+        }
+        stats.moveNanos.record( set.getNanos() );
+        markChanges( set );
+
+        switch( set.getCommand() ) {
+        case EngineThread.CHORD:
+            if( $move.getOutcome() == MineEngine.BAD_CLEAR ) {
+                playSound( MineSwinger.BAD_CLEAR );
+                setGameText( Msgs.str( "badclear.info" ) );
+                badClear = true;
+            } else if( $move.getOutcome() == MineEngine.REVEALED ) {
+                lightup = shaded = false;
+                setScore( $move );
+                playSound( MineSwinger.MOUSE );
+            }
+            break;
 
-                    mine2dArray[i][j].setQmark( false );
-                    $haveQmarks = true;
-                }
+        case EngineThread.REVEAL:
+            if( $move.getOutcome() == MineEngine.EXPLODED ) // game over
+                destroyed = true;
+            else {
+                // also shows the mines remaining - the mines are laid on the first reveal, with fewer if the safe
+                // opening left too little room
+                setScore( $move );
+                if( density == 0 ) repaintAll();
             }
-        if( $haveQmarks ) repaint();
-    }
-
-    /** Randomly seed the field with mines based on the current density */
-    protected void layMines() {
-        int i, j;
-        boolean $fillin = false;
-        mine2dArray = new Square[fieldLength][fieldLength];
-
-        while( hiddenMines < totalMines ) {
-            for( i = 0; i < fieldLength; i++ )
-                for( j = 0; j < fieldLength; j++ ) {
-                    if( !$fillin ) mine2dArray[i][j] = new Square();
-
-                    if( hiddenMines < totalMines ) {
-                        if( (!mine2dArray[i][j].hasMine) && (Math.random() <= density) ) {
-                            mine2dArray[i][j].arm();
-                            hiddenMines++;
-                        }
-                    }
-                }
-            $fillin = true;
+            break;
+
+        case EngineThread.FLAG:
+            if( $move.getOutcome() == MineEngine.FLAGGED ) playSound( MineSwinger.FLAG );
+            setScore( $move );
+            break;
+
+        default: // question mark
         }
-        System.out.println( "hiddenMines = " + hiddenMines );
+
+        if( destroyed || badClear )
+            gameOver( set.getFinished() );
+        else
+            paintArea();
     }
 
     /**
-     * Set the minecount variable of each <code>Square</code>.<br>
-     * - this is the total number of mines in all neighbouring <code>Squares</code>
+     * Copy the <code>Squares</code> changed by a move and damage EXACTLY those - see {@link #paintArea()}
+     * @param set - result of the move
      */
-    protected void count() {
-        int u, v, i, j, $detected = 0;
+    private void markChanges(final ChangeSet set) {
+        for( int i = 0; i < set.getChangeCount(); i++ )
+            cells.set( set.getSquare( i ), set.getBits( i ) );
+
+        changes = set.getArea();
+        for( int i = 0; i < changes.size(); i++ )
+            buffer.damage( changes.getLeft( i ), changes.getTop( i ), changes.getRight( i ), changes.getBottom( i ) );
+    }
 
-        for( i = 0; i < fieldLength; i++ )
-            for( j = 0; j < fieldLength; j++, $detected = 0 ) {
-                // co-ordinates of the 3x3 (or smaller if near an edge) grid containing all the adjacent Squares
-                int left = (i == 0 ? 0 : i - 1);
-                int right = (i == fieldLength - 1 ? i : i + 1);
-                int top = (j == 0 ? 0 : j - 1);
-                int bottom = (j == fieldLength - 1 ? j : j + 1);
+    /**
+     * The game was lost: show the mines, with the explosion if a mine was revealed, and stop the game
+     * @param engine - the {@link MineEngine} of the game, no longer used by the engine thread
+     */
+    private void gameOver(final MineEngine engine) {
+        finished = engine;
+        destx = engine.getLossX();
+        desty = engine.getLossY();
+        Trace.event( Trace.GAME_OVER, destx, desty, destroyed ? 1 : 0 );
 
-                for( u = left; u <= right; u++ )
-                    for( v = top; v <= bottom; v++ )
-                        if( mine2dArray[u][v].hasMine() ) $detected++;
+        if( destroyed ) // activate the explosion
+        {
+            listener.init();
+            setGameText( Msgs.str( "explode.info" ) );
+            playSound( MineSwinger.BOOM );
+            exploder.start();
+        }
 
-                mine2dArray[i][j].setMinecount( $detected );
-            }
+        repaintAll();
+        gameview.halt();
     }
 
     /**
-     * RECURSIVELY find and reveal all adjacent blank and numbered <code>Squares</code><br>
-     * - gets called <bold>recursively</bold> for blank <code>Squares</code> (i.e. those NOT adjacent to any mines)
-     * @param u - horizontal co-ordinate
-     * @param v - vertical co-ordinate
-     */
-    protected void clearOut(final int u, final int v) {
-        if( !mine2dArray[u][v].isRevealed() ) mine2dArray[u][v].setRevealed();
-
-        /* have to reset these each time because this is a recursive method */
-        int $left = (u == 0 ? 0 : u - 1);
-        int $right = (u == fieldLength - 1 ? u : u + 1);
-        int $top = (v == 0 ? 0 : v - 1);
-        int $bot = (v == fieldLength - 1 ? v : v + 1);
-
-        if( firstScan ) {
-            firstScan = false;
-            paintLeft = $left;
-            paintRight = $right;
-            paintTop = $top;
-            paintBottom = $bot;
-        } else {
-            if( $left < paintLeft ) paintLeft = $left;
-            if( $right > paintRight ) paintRight = $right;
-            if( $top < paintTop ) paintTop = $top;
-            if( $bot > paintBottom ) paintBottom = $bot;
+     * Zoom with the control key down, otherwise scroll
+     * @param evt - {@link MouseWheelEvent}
+     */
+    @Override
+    public void mouseWheelMoved(final MouseWheelEvent evt) {
+        if( evt.isControlDown() )
+            gameview.zoom( -evt.getPreciseWheelRotation(), evt.getX(), evt.getY() );
+        else {
+            // this listener hides the wheel from the scroll pane, so pass the event on
+            Component $scroller = SwingUtilities.getAncestorOfClass( JScrollPane.class, this );
+            if( $scroller != null ) $scroller.dispatchEvent( SwingUtilities.convertMouseEvent( this, evt, $scroller ) );
         }
-
-        int i, j;
-        for( i = $left; i <= $right; i++ )
-            for( j = $top; j <= $bot; j++ )
-                if( !mine2dArray[i][j].isRevealed() ) {
-                    mine2dArray[i][j].setRevealed();
-                    setScore( PLUS );
-                    // recursive call if any adjacent squares are also blank
-                    if( mine2dArray[i][j].isBlank() ) clearOut( i, j );
-                }
     }
 
     /** @see java.awt.event.MouseListener#mouseClicked(java.awt.event.MouseEvent) */
@@ -373,36 +506,38 @@ class MineField extends JLabel implements MouseListener {
 
     /**
      * Set a flag, or reveal a <code>Square</code>, or clear out an area, etc.<br>
-     * - handles all user input from the various mouse buttons
+     * - handles all user input from the various mouse buttons and posts the moves to the {@link EngineThread}: only the
+     * lighting up or shading of the pressed <code>Square</code> is done here
      * @param evt - {@link MouseEvent}
      */
     @Override
-    public void mousePressed(final MouseEvent evt) {
-        int $flagcount, $minecount, $revealcount, i, j;
+    public synchronized void mousePressed(final MouseEvent evt) {
+        // a press in the viewport around a small field is not on any Square
+        if( !inField( evt.getX(), evt.getY() ) ) return;
 
         int x = evt.getX() / squareLength;
         int y = evt.getY() / squareLength;
-        if( DEBUG_LEVEL > 2 ) System.out.println( myname() + Msgs.str( "mouse.press" ) + "Square[" + x + "][" + y + "] " );
 
-        Square activeSqr = mine2dArray[x][y];
-        if( firstPress ) gameview.startClock();
-
-        // TODO: need this?
-        if( cleared ) return; // prevent a 2nd press from erasing the clearOut() dimensions
+        if( firstPress ) {
+            gameview.startClock();
+            firstPress = false;
+        }
 
         // Need at least Java version 1.4 to use getModifiersEx()
         int pressed = evt.getModifiersEx();
-        if( DEBUG_LEVEL > 1 )
-            System.out.println( myname() + Msgs.str( "mouse.press" ) + InputEvent.getModifiersExText( pressed ) );
+        Trace.event( Trace.PRESS, x, y, pressed );
 
         paintLeft = paintRight = x;
         paintTop = paintBottom = y;
 
+        // the engine checks every move again, in case this copy is behind
+        int $bits = cells.get( x, y );
+
         /* already Revealed, i.e. number or blank
          * button 1 = light up
          * button 2 = null
          * button 3 = clear out  */
-        if( activeSqr.isRevealed() ) {
+        if( ($bits & MineEngine.REVEALED_BIT) != 0 ) {
             // BUTTON 1 CLICKED
             if( (pressed & InputEvent.BUTTON1_DOWN_MASK) == InputEvent.BUTTON1_DOWN_MASK ) {
                 // light up the background
@@ -415,55 +550,7 @@ class MineField extends JLabel implements MouseListener {
             // - if the square is numbered and all adjacent mines are properly flagged,
             // will reveal all adjacent squares - including showing ALL attached blank space
             {
-                if( activeSqr.isBlank() ) return;
-
-                lightup = shaded = false;
-                $flagcount = $revealcount = 0;
-                $minecount = activeSqr.getMinecount();
-
-                int left = (x == 0 ? 0 : x - 1);
-                int right = (x == fieldLength - 1 ? x : x + 1);
-                int top = (y == 0 ? 0 : y - 1);
-                int bottom = (y == fieldLength - 1 ? y : y + 1);
-
-                for( i = left; i <= right; i++ )
-                    for( j = top; j <= bottom; j++ ) {
-                        if( mine2dArray[i][j].hasFlag() ) {
-                            $flagcount++;
-                            /* game over if try to clear in vicinity of an incorrect flag */
-                            if( !mine2dArray[i][j].hasMine() ) {
-                                playSound( MineSwinger.BAD_CLEAR );
-                                setGameText( Msgs.str( "badclear.info" ) );
-                                paintLeft = i;
-                                paintTop = j;
-                                badClear = true;
-                                return;
-                            }
-                        }
-                        if( mine2dArray[i][j].isRevealed() ) $revealcount++;
-                    }
-
-                // how many squares in our adjacency grid?
-                int gridsize = (right - left + 1) * (bottom - top + 1);
-                // all adjacent squares except mines are already revealed
-                boolean opengrid = ($revealcount == (gridsize - $minecount));
-
-                if( ($flagcount == $minecount) && !opengrid ) {
-                    paintLeft = left;
-                    paintRight = right;
-                    paintTop = top;
-                    paintBottom = bottom;
-
-                    for( i = left; i <= right; i++ )
-                        for( j = top; j <= bottom; j++ )
-                            if( !mine2dArray[i][j].hasMine() && !mine2dArray[i][j].isRevealed() ) {
-                                mine2dArray[i][j].setRevealed();
-                                setScore( PLUS );
-                                if( mine2dArray[i][j].isBlank() ) clearOut( i, j );
-                            }
-                }
-                playSound( MineSwinger.MOUSE );
-
+                worker.move( generation, EngineThread.CHORD, x, y, false );
             } // BUTTON 3 CLICKED
 
         } // Revealed Square
@@ -475,65 +562,21 @@ class MineField extends JLabel implements MouseListener {
         {
             // BUTTON 1 CLICKED
             if( (pressed & InputEvent.BUTTON1_DOWN_MASK) == InputEvent.BUTTON1_DOWN_MASK ) {
-                if( activeSqr.hasFlag() || activeSqr.hasQmark() ) return;
+                if( ($bits & (MineEngine.FLAG_BIT | MineEngine.QMARK_BIT)) != 0 ) return;
 
                 shaded = true;
                 paintArea();
-
-                if( activeSqr.hasMine() ) {
-                    if( firstPress ) // give user a break on the first press
-                    {
-                        playSound( MineSwinger.FLAG );
-                        activeSqr.setFlag( true );
-                        setMinesText( --hiddenMines );
-                    } else // game over
-                    {
-                        destroyed = true;
-                        return;
-                    }
-                } else if( activeSqr.isBlank() ) {
-                    firstScan = true;
-                    clearOut( x, y );
-                    cleared = true;
-                } else
-                    activeSqr.setRevealed();
-
-                if( density == 0 ) {
-                    paintAll = true;
-                    repaint();
-                }
-
-                setScore( PLUS );
-
+                worker.move( generation, EngineThread.REVEAL, x, y, false );
             }// BUTTON 1
             else
             // BUTTON 2 CLICKED
             if( (pressed & InputEvent.BUTTON2_DOWN_MASK) == InputEvent.BUTTON2_DOWN_MASK ) {
-                if( activeSqr.hasFlag() ) return;
-
-                if( activeSqr.hasQmark() ) {
-                    // remove question mark
-                    activeSqr.setQmark( false );
-                } else { // add qmark if they are active
-                    if( gameview.qMarksAreOn() ) activeSqr.setQmark( true );
-                }
+                worker.move( generation, EngineThread.QMARK, x, y, gameview.qMarksAreOn() );
             }// BUTTON 2
             else
             // BUTTON 3 CLICKED
             if( (pressed & InputEvent.BUTTON3_DOWN_MASK) == InputEvent.BUTTON3_DOWN_MASK ) {
-                if( activeSqr.hasFlag() ) // remove flag
-                {
-                    activeSqr.setFlag( false );
-                    hiddenMines++;
-                    setScore( MINUS );
-                } else // add flag
-                {
-                    activeSqr.setQmark( false );
-                    playSound( MineSwinger.FLAG );
-                    activeSqr.setFlag( true );
-                    hiddenMines--;
-                    setScore( PLUS );
-                }
+                worker.move( generation, EngineThread.FLAG, x, y, false );
             }// BUTTON 3
         } // Square NOT Revealed
     }
@@ -543,343 +586,317 @@ class MineField extends JLabel implements MouseListener {
      * @param evt - {@link MouseEvent}
      */
     @Override
-    public void mouseReleased(final MouseEvent evt) {
-        cleared = lightup = shaded = false;
-        if( DEBUG_LEVEL > 1 )
-            System.out.println( myname() + Msgs.str( "mouse.release" ) + InputEvent.getModifiersExText( evt.getModifiersEx() ) );
+    public synchronized void mouseReleased(final MouseEvent evt) {
+        lightup = shaded = false;
+        if( inField( evt.getX(), evt.getY() ) )
+            Trace.event( Trace.RELEASE, evt.getX() / squareLength, evt.getY() / squareLength, evt.getModifiersEx() );
 
-        if( firstPress ) firstPress = false;
-
-        if( destroyed || badClear ) {
-            destx = paintLeft;
-            desty = paintTop;
-            if( DEBUG_LEVEL > 2 )
-                System.out.println( myname() + Msgs.str( "mouse.release" ) + "destx = " + destx + " ; " + "desty = " + desty );
-
-            if( destroyed ) // activate the explosion
-            {
-                listener.init();
-                setGameText( Msgs.str( "explode.info" ) );
-                playSound( MineSwinger.BOOM );
-                exploder.start();
-            }
+        // the end of a lost game is shown when the engine thread hands back the move
+        if( !(destroyed || badClear) ) paintArea();
+    }
 
-            paintAll = true;
-            repaint();
-            gameview.halt();
-        } else
-            paintArea();
+    /**
+     * @param px - horizontal pixel position
+     * @param py - vertical pixel position
+     * @return true if the pixel is on a <code>Square</code> of the field
+     */
+    private boolean inField(final int px, final int py) {
+        return px >= 0 && py >= 0 && px < fieldWidth * squareLength && py < fieldHeight * squareLength;
     }
 
-    /** Need to refresh only a certain portion of the frame - calls {@link java.awt.Component#repaint} */
+    /**
+     * Need to refresh only the <code>Squares</code> under the mouse press and those changed by the latest move - calls
+     * {@link java.awt.Component#repaint}
+     */
     protected void paintArea() {
-        if( DEBUG_LEVEL > 1 )
-            System.out.println( myname() + ": paintArea() > " + Msgs.str( "Left" ) + paintLeft + Msgs.str( "Right" )
-                            + paintRight + Msgs.str( "Top" ) + paintTop + Msgs.str( "Bottom" ) + paintBottom );
+        long $start = System.nanoTime();
+        Trace.event( Trace.PAINT_AREA, paintLeft, paintTop, changes.size() );
+        buffer.damage( paintLeft, paintTop, paintRight, paintBottom );
+        repaintSquares( paintLeft, paintTop, paintRight, paintBottom );
+
+        if( changes.size() > MAX_CHANGE_RECTS )
+            repaintSquares( changes.getBoundsLeft(), changes.getBoundsTop(), changes.getBoundsRight(),
+                            changes.getBoundsBottom() );
+        else
+            for( int i = 0; i < changes.size(); i++ )
+                repaintSquares( changes.getLeft( i ), changes.getTop( i ), changes.getRight( i ), changes.getBottom( i ) );
+        changes = NO_CHANGES;
+        stats.areaNanos.record( System.nanoTime() - $start );
+    }
+
+    /**
+     * calls {@link java.awt.Component#repaint} for a rectangle of <code>Squares</code>
+     * @param left - first column
+     * @param top - first row
+     * @param right - last column
+     * @param bottom - last row
+     */
+    private void repaintSquares(final int left, final int top, final int right, final int bottom) {
         //@formatter:off
-        paintAll = false;
-        repaint( paintLeft * squareLength,
-                 paintTop * squareLength, 
-                 (paintRight - paintLeft + 1) * squareLength, 
-                 (paintBottom - paintTop + 1) * squareLength );
+        repaint( left * squareLength,
+                 top * squareLength, 
+                 (right - left + 1) * squareLength, 
+                 (bottom - top + 1) * squareLength );
         //@formatter:on
     }
 
-    /** Refresh the graphical representation of the mine array - called by {@link java.awt.Component#repaint} */
+    /** @return background of the <code>Squares</code> being painted, depending on the current mouse press */
+    private int background() {
+        return lightup ? SquareTiles.LIGHTUP : (shaded ? SquareTiles.SHADED : SquareTiles.NORMAL);
+    }
+
+    /**
+     * Every repaint also asks the {@link ActiveField}, if there is one, for a new frame
+     * @see javax.swing.JComponent#repaint(long, int, int, int, int)
+     */
     @Override
-    public void paintComponent(Graphics page) {
-        if( DEBUG_LEVEL > 1 )
-            System.out.println( myname() + ": paintComponent() > " + Msgs.str( "Left" ) + paintLeft + Msgs.str( "Right" )
-                            + paintRight + Msgs.str( "Top" ) + paintTop + Msgs.str( "Bottom" ) + paintBottom );
-
-        if( paintAll ) {
-            paintLeft = 0;
-            paintRight = fieldLength - 1;
-            paintTop = 0;
-            paintBottom = fieldLength - 1;
-        }
+    public void repaint(final long tm, final int x, final int y, final int width, final int height) {
+        ActiveField $active = active;
+        if( $active != null ) $active.setDirty();
+        super.repaint( tm, x, y, width, height );
+    }
 
-        for( int i = paintLeft; i <= paintRight; i++ )
-            for( int j = paintTop; j <= paintBottom; j++ ) {
-                if( mine2dArray[i][j].isRevealed() )
-                    reveal( i * squareLength, j * squareLength, mine2dArray[i][j].getMinecount(), page );
-                else if( mine2dArray[i][j].hasFlag() )
-                    reveal( i * squareLength, j * squareLength, FLAG, page );
-                else if( mine2dArray[i][j].hasQmark() )
-                    reveal( i * squareLength, j * squareLength, QMARK, page );
-                else
-                    reveal( i * squareLength, j * squareLength, BLANK, page );
-
-                if( destroyed || badClear ) /* show all the mines */
-                if( mine2dArray[i][j].hasMine() ) reveal( i * squareLength, j * squareLength, MINE, page );
-            }
+    /** @param view - the {@link ActiveField} now showing this field, or null when Swing paints it */
+    void setActiveField(final ActiveField view) {
+        active = view;
+    }
 
-        if( badClear ) // indicate bad flag
-            reveal( destx * squareLength, desty * squareLength, BADCLEAR, page );
+    /** Every <code>Square</code> may have changed: draw the whole field again - calls {@link java.awt.Component#repaint} */
+    protected void repaintAll() {
+        buffer.damageAll();
+        repaint();
+    }
+
+    /**
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return type of the <code>Square</code> at (x,y) as it should be drawn in the {@link FieldBuffer}
+     */
+    int squareType(final int x, final int y) {
+        if( (destroyed || badClear) && x == destx && y == desty ) /* ended the game */
+            return destroyed ? 0 : BADCLEAR; // the explosion is drawn over a blank Square
+
+        if( finished != null ) return squareType( finished, x, y, true );
+        return squareType( cells.get( x, y ) );
+    }
+
+    /**
+     * @param game - the {@link MineEngine} holding the field
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @param showMines - true to show the mines, as when the game is over
+     * @return type of the <code>Square</code> at (x,y), not counting the <code>Square</code> which ended the game
+     */
+    static int squareType(final MineEngine game, final int x, final int y, final boolean showMines) {
+        if( showMines && game.hasMine( x, y ) ) return MINE;
+        return squareType( game.cell( x, y ) );
+    }
+
+    /**
+     * @param bits - packed {@link MineEngine} bits of a <code>Square</code>
+     * @return type of the <code>Square</code>, not showing any mine
+     */
+    static int squareType(final int bits) {
+        if( (bits & MineEngine.REVEALED_BIT) != 0 ) return bits & MineEngine.COUNT_MASK;
+        if( (bits & MineEngine.FLAG_BIT) != 0 ) return FLAG;
+        if( (bits & MineEngine.QMARK_BIT) != 0 ) return QMARK;
+        return BLANK;
+    }
+
+    /**
+     * @param x - horizontal co-ordinate
+     * @param y - vertical co-ordinate
+     * @return background of the <code>Square</code> at (x,y) - only the paint area of a mouse press is lit up or shaded
+     */
+    int squareBackground(final int x, final int y) {
+        if( x < paintLeft || x > paintRight || y < paintTop || y > paintBottom ) return SquareTiles.NORMAL;
+        return background();
+    }
+
+    /**
+     * Refresh the graphical representation of the mine array - called by {@link java.awt.Component#repaint}<br>
+     * - copies the clip region from the {@link FieldBuffer}, which draws only the damaged <code>Squares</code>
+     */
+    @Override
+    public void paintComponent(Graphics page) {
+        long $start = System.nanoTime();
+        if( tiles.validate( page, getFont() ) ) {
+            buffer.clear();
+            blasts = new BufferedImage[EXPLODE_INDEX];
+        }
+        buffer.paint( page );
 
         if( destroyed ) // blow up
-            reveal( destx * squareLength, desty * squareLength, FATAL, page );
+            drawExplosion( destx * squareLength, desty * squareLength, page );
 
-        paintAll = true;
+        long $nanos = System.nanoTime() - $start;
+        Rectangle $clip = page.getClipBounds();
+        long $pixels = ($clip == null) ? (long) getWidth() * getHeight() : (long) $clip.width * $clip.height;
+        stats.recordPaint( $nanos, buffer.getDrawnCount(), $pixels );
+        Trace.event( Trace.PAINT_FIELD, $nanos, $pixels, buffer.getDrawnCount() );
     }
 
     /**
-     * Draw individual <code>Squares</code> depending on the content. i.e. different numbers of adjacent mines, revealed or not,
-     * flag, blow-up, etc<br>
+     * Draw the current frame of the animation explosion over a revealed blank <code>Square</code><br>
      * - called ONLY by {@link #paintComponent(Graphics)}
      * @param xc - x co-ordinate
      * @param yc - y co-ordinate
-     * @param tp - Square type
      * @param page - {@link Graphics} page
      */
-    void reveal(final int xc, final int yc, final int tp, Graphics page) {
-        int $type = tp;
+    void drawExplosion(final int xc, final int yc, Graphics page) {
+        int index = listener.index % EXPLODE_INDEX;
+        Trace.event( Trace.EXPLODE_FRAME, index );
+        if( blasts[index] == null ) blasts[index] = renderExplosion( page, index );
+
+        page.drawImage( blasts[index], xc - squareLength, yc - squareLength, EXPLODE_WIDTH * squareLength,
+                        EXPLODE_HEIGHT * squareLength, null );
+    }
+
+    /** repaint the part of the field covered by the explosion frames */
+    private void repaintExplosion() {
+        repaint( (destx - 1) * squareLength, (desty - 1) * squareLength, EXPLODE_WIDTH * squareLength,
+                 EXPLODE_HEIGHT * squareLength );
+    }
+
+    /**
+     * Draw one frame of the animation explosion into a transparent image at the device resolution - the mine
+     * <code>Square</code> is at (1,1) in <code>Squares</code>
+     * @param page - {@link Graphics} page the frame will be painted on
+     * @param index - frame number
+     * @return new frame
+     */
+    private BufferedImage renderExplosion(final Graphics page, final int index) {
+        int $sl = squareLength;
+        int $wd = (int) Math.ceil( EXPLODE_WIDTH * $sl * tiles.getScale() );
+        int $ht = (int) Math.ceil( EXPLODE_HEIGHT * $sl * tiles.getScale() );
+        GraphicsConfiguration $gc = (page instanceof Graphics2D) ? ((Graphics2D) page).getDeviceConfiguration() : null;
+
+        BufferedImage $frame = ($gc != null) ? $gc.createCompatibleImage( $wd, $ht, Transparency.TRANSLUCENT )
+                        : new BufferedImage( $wd, $ht, BufferedImage.TYPE_INT_ARGB );
+
+        Graphics2D $g = $frame.createGraphics();
+        $g.scale( (double) $wd / (EXPLODE_WIDTH * $sl), (double) $ht / (EXPLODE_HEIGHT * $sl) );
+        tiles.draw( $g, $sl, $sl, 0, SquareTiles.NORMAL );
+        drawFrame( $sl, $sl, index, $g );
+        $g.dispose();
+
+        return $frame;
+    }
+
+    /**
+     * Draw one frame of the animation explosion from primitives
+     * @param xc - x co-ordinate of the mine <code>Square</code>
+     * @param yc - y co-ordinate of the mine <code>Square</code>
+     * @param index - frame number
+     * @param page - {@link Graphics} page
+     */
+    private void drawFrame(final int xc, final int yc, final int index, Graphics page) {
         int $sl = squareLength;
 
-        if( DEBUG_LEVEL > 2 ) System.out.println( myname() + ": reveal() > xc = " + xc + " & yc = " + yc + " & type = " + tp );
+        switch( index ) {
+        case 0:
+            page.setColor( COLOR_BRIGHT );
+            page.fillOval( xc + $sl / 8, yc + $sl / 8, $sl - $sl / 4, $sl - $sl / 4 );
+            page.fillOval( xc - $sl / 3, yc - $sl / 3, $sl / 5, $sl / 3 );
+            page.fillOval( xc + 4 * $sl / 3, yc + $sl / 3, $sl / 5, $sl / 3 );
+            break;
 
-        // background
-        if( lightup )
-            page.setColor( COLOR_BLAZE );
-        else if( shaded ) {
-            page.setColor( COLOR_SHADE );
-            $type = 0;
-        } else
-            page.setColor( COLOR_LIGHT );
-
-        page.fillRect( xc, yc, squareLength, squareLength );
-
-        // Square outline
-        page.setColor( COLOR_MEDIUM );
-        page.drawLine( xc, yc + $sl - 1, xc + $sl, yc + $sl - 1 ); // bottom
-        page.drawLine( xc + $sl - 1, yc, xc + $sl - 1, yc + $sl ); // right
-        page.setColor( COLOR_DARK );
-        page.drawLine( xc, yc, xc + $sl, yc ); // top
-        page.drawLine( xc, yc, xc, yc + $sl ); // left
-
-        // interior details depending on type
-        switch( $type ) {
-        // 1 - 8 = # of adjacent mines: set color
         case 1:
-            page.setColor( COLOR_NUM1 );
+            page.setColor( COLOR_BLAZE );
+            page.fillOval( xc + $sl / 8, yc + $sl / 8, $sl - $sl / 4, $sl - $sl / 4 );
+            page.fillOval( xc - $sl / 2, yc - 2 * $sl / 5, $sl / 10, $sl / 10 );
+            page.fillOval( xc + 2 * $sl, yc + $sl / 3, $sl / 5, $sl / 3 );
+
+            page.setColor( COLOR_MEDIUM );
+            page.fillOval( xc - $sl / 3, yc - $sl / 3, $sl / 5, $sl / 3 );
+            page.fillOval( xc + 4 * $sl / 3, yc + $sl / 3, $sl / 5, $sl / 3 );
             break;
+
         case 2:
-            page.setColor( COLOR_NUM2 );
-            break;
-        case 3:
-            page.setColor( COLOR_NUM3 );
-            break;
-        case 4:
-            page.setColor( COLOR_NUM4 );
-            break;
-        case 5:
-            page.setColor( COLOR_NUM5 );
-            break;
-        case 6:
-            page.setColor( COLOR_NUM6 );
-            break;
-        case 7:
-            page.setColor( COLOR_NUM7 );
-            break;
-        case 8:
-            page.setColor( COLOR_NUM8 );
+            page.setColor( COLOR_BOLD );
+            page.fillOval( xc + $sl / 8, yc + $sl / 8, $sl - $sl / 4, $sl - $sl / 4 );
+            page.fillOval( xc - 2 * $sl / 3, yc - 3 * $sl / 5, $sl / 10, $sl / 10 );
+            page.fillOval( xc + 9 * $sl / 4, yc + $sl / 3, $sl / 5, $sl / 3 );
+
+            page.setColor( COLOR_BLAZE );
+            page.fillOval( xc + $sl, yc, $sl / 5, $sl / 5 );
+            page.fillOval( xc, yc + $sl, $sl / 5, $sl / 5 );
+            page.fillOval( xc + $sl, yc + $sl, $sl / 5, $sl / 5 );
+
+            page.setColor( COLOR_MEDIUM );
+            page.fillOval( xc - $sl / 2, yc - 2 * $sl / 5, $sl / 10, $sl / 10 );
+            page.fillOval( xc + 2 * $sl, yc + $sl / 3, $sl / 5, $sl / 3 );
             break;
 
-        case MINE:
-            drawSquare( xc, yc, page );
-            page.setColor( COLOR_DARK );
-            page.fillOval( xc + $sl / 8, yc + $sl / 8, 3 * $sl / 4, 3 * $sl / 4 );
+        case 3:
             page.setColor( COLOR_DARKEST );
-            page.fillOval( xc + $sl / 8 + 1, yc + $sl / 8 + 1, 3 * $sl / 4 - 2, 3 * $sl / 4 - 2 );
-            page.setColor( COLOR_DARK );
-            page.fillOval( xc + $sl / 3 - 2, yc + $sl / 3 - 2, $sl / 8 + 4, $sl / 8 + 4 );
+            page.fillOval( xc + $sl / 8, yc + $sl / 8, $sl - $sl / 4, $sl - $sl / 4 );
+
             page.setColor( COLOR_MEDIUM );
-            page.fillOval( xc + $sl / 3 - 1, yc + $sl / 3 - 1, $sl / 8 + 2, $sl / 8 + 2 );
+            page.fillOval( xc - 2 * $sl / 3, yc - 3 * $sl / 5, $sl / 10, $sl / 10 );
+            page.fillOval( xc + 9 * $sl / 4, yc + $sl / 3, $sl / 5, $sl / 3 );
+
             page.setColor( COLOR_BRIGHT );
-            page.fillOval( xc + $sl / 3, yc + $sl / 3, $sl / 8, $sl / 8 );
-            break;
+            drawSparks( xc, yc, page );
 
-        case FLAG:
-            drawSquare( xc, yc, page );
-            page.setColor( COLOR_FLAG_BKGRND );
-            page.fillOval( xc + $sl / 8, yc + $sl / 8, 3 * $sl / 4, 3 * $sl / 4 );
-            page.setColor( COLOR_FLAG_BELT );
-            page.fillRect( xc + $sl / 8, yc + 3 * $sl / 8, 3 * $sl / 4, $sl / 4 );
-            page.setColor( COLOR_FLAG_BURST );
-            page.drawString( "*", xc + 3 * $sl / 8, yc + 7 * $sl / 8 );
-            break;
+            page.fillOval( xc + 5 * $sl / 4, yc - $sl / 4, $sl / 5, $sl / 5 );
+            page.fillOval( xc - $sl / 4, yc + 5 * $sl / 4, $sl / 5, $sl / 5 );
+            page.fillOval( xc + 5 * $sl / 4, yc + 5 * $sl / 4, $sl / 5, $sl / 5 );
 
-        case QMARK:
-            drawSquare( xc, yc, page );
-            page.setColor( COLOR_DARKEST );
-            page.drawString( "?", xc + $sl / 4, yc + 3 * $sl / 4 );
+            page.setColor( COLOR_MEDIUM );
+            page.fillOval( xc + $sl, yc, $sl / 5, $sl / 5 );
+            page.fillOval( xc, yc + $sl, $sl / 5, $sl / 5 );
+            page.fillOval( xc + $sl, yc + $sl, $sl / 5, $sl / 5 );
             break;
 
-        case BLANK:
-            drawSquare( xc, yc, page );
+        case 4:
+            page.setColor( COLOR_BLAZE );
+            drawSparks( xc, yc, page );
+
+            page.fillOval( xc + 6 * $sl / 4, yc - 2 * $sl / 4, $sl / 7, $sl / 7 );
+            page.fillOval( xc - 2 * $sl / 4, yc + 6 * $sl / 4, $sl / 7, $sl / 7 );
+            page.fillOval( xc + 6 * $sl / 4, yc + 6 * $sl / 4, $sl / 7, $sl / 7 );
+
+            page.setColor( COLOR_MEDIUM );
+            page.fillOval( xc + 5 * $sl / 4, yc - $sl / 4, $sl / 5, $sl / 5 );
+            page.fillOval( xc - $sl / 4, yc + 5 * $sl / 4, $sl / 5, $sl / 5 );
+            page.fillOval( xc + 5 * $sl / 4, yc + 5 * $sl / 4, $sl / 5, $sl / 5 );
             break;
 
-        case BADCLEAR:
-            drawSquare( xc, yc, page );
-            page.setColor( COLOR_DARK );
-            page.fillOval( xc + $sl / 8, yc + $sl / 8, 3 * $sl / 4, 3 * $sl / 4 );
-            page.setColor( COLOR_DARKEST );
-            page.fillOval( xc + $sl / 8 + 1, yc + $sl / 8 + 1, 3 * $sl / 4 - 2, 3 * $sl / 4 - 2 );
-            page.setColor( COLOR_DARK );
-            page.fillOval( xc + $sl / 3 - 2, yc + $sl / 3 - 2, $sl / 8 + 4, $sl / 8 + 4 );
+        case 5:
+            page.setColor( COLOR_BLAST );
+            drawSparks( xc, yc, page );
+
+            page.fillOval( xc + 7 * $sl / 4, yc - 3 * $sl / 4, $sl / 10, $sl / 10 );
+            page.fillOval( xc - 3 * $sl / 4, yc + 7 * $sl / 4, $sl / 10, $sl / 10 );
+            page.fillOval( xc + 7 * $sl / 4, yc + 7 * $sl / 4, $sl / 10, $sl / 10 );
+
             page.setColor( COLOR_MEDIUM );
-            page.fillOval( xc + $sl / 3 - 1, yc + $sl / 3 - 1, $sl / 8 + 2, $sl / 8 + 2 );
-            page.setColor( COLOR_BRIGHT );
-            page.fillOval( xc + $sl / 3, yc + $sl / 3, $sl / 8, $sl / 8 );
-            page.setColor( COLOR_BOLD );
-            // draw an 'X' over the erroneous mine placement
-            page.drawString( "X", xc + $sl / 4, yc + 3 * $sl / 4 );
+            page.fillOval( xc + 6 * $sl / 4, yc - 2 * $sl / 4, $sl / 7, $sl / 7 );
+            page.fillOval( xc - 2 * $sl / 4, yc + 6 * $sl / 4, $sl / 7, $sl / 7 );
+            page.fillOval( xc + 6 * $sl / 4, yc + 6 * $sl / 4, $sl / 7, $sl / 7 );
             break;
 
-        case FATAL: // animated explosion if user clicked on a mine
-        {
-            if( DEBUG_LEVEL > 1 ) System.out.println( "case FATAL" );
-
-            int index = listener.index % EXPLODE_INDEX;
-
-            switch( index ) {
-            case 0:
-                page.setColor( COLOR_BRIGHT );
-                page.fillOval( xc + $sl / 8, yc + $sl / 8, $sl - $sl / 4, $sl - $sl / 4 );
-                page.fillOval( xc - $sl / 3, yc - $sl / 3, $sl / 5, $sl / 3 );
-                page.fillOval( xc + 4 * $sl / 3, yc + $sl / 3, $sl / 5, $sl / 3 );
-                break;
-
-            case 1:
-                page.setColor( COLOR_BLAZE );
-                page.fillOval( xc + $sl / 8, yc + $sl / 8, $sl - $sl / 4, $sl - $sl / 4 );
-                page.fillOval( xc - $sl / 2, yc - 2 * $sl / 5, $sl / 10, $sl / 10 );
-                page.fillOval( xc + 2 * $sl, yc + $sl / 3, $sl / 5, $sl / 3 );
-
-                page.setColor( COLOR_MEDIUM );
-                page.fillOval( xc - $sl / 3, yc - $sl / 3, $sl / 5, $sl / 3 );
-                page.fillOval( xc + 4 * $sl / 3, yc + $sl / 3, $sl / 5, $sl / 3 );
-                break;
-
-            case 2:
-                page.setColor( COLOR_BOLD );
-                page.fillOval( xc + $sl / 8, yc + $sl / 8, $sl - $sl / 4, $sl - $sl / 4 );
-                page.fillOval( xc - 2 * $sl / 3, yc - 3 * $sl / 5, $sl / 10, $sl / 10 );
-                page.fillOval( xc + 9 * $sl / 4, yc + $sl / 3, $sl / 5, $sl / 3 );
-
-                page.setColor( COLOR_BLAZE );
-                page.fillOval( xc + $sl, yc, $sl / 5, $sl / 5 );
-                page.fillOval( xc, yc + $sl, $sl / 5, $sl / 5 );
-                page.fillOval( xc + $sl, yc + $sl, $sl / 5, $sl / 5 );
-
-                page.setColor( COLOR_MEDIUM );
-                page.fillOval( xc - $sl / 2, yc - 2 * $sl / 5, $sl / 10, $sl / 10 );
-                page.fillOval( xc + 2 * $sl, yc + $sl / 3, $sl / 5, $sl / 3 );
-                break;
-
-            case 3:
-                page.setColor( COLOR_DARKEST );
-                page.fillOval( xc + $sl / 8, yc + $sl / 8, $sl - $sl / 4, $sl - $sl / 4 );
-
-                page.setColor( COLOR_MEDIUM );
-                page.fillOval( xc - 2 * $sl / 3, yc - 3 * $sl / 5, $sl / 10, $sl / 10 );
-                page.fillOval( xc + 9 * $sl / 4, yc + $sl / 3, $sl / 5, $sl / 3 );
-
-                page.setColor( COLOR_BRIGHT );
-                drawSparks( xc, yc, page );
-
-                page.fillOval( xc + 5 * $sl / 4, yc - $sl / 4, $sl / 5, $sl / 5 );
-                page.fillOval( xc - $sl / 4, yc + 5 * $sl / 4, $sl / 5, $sl / 5 );
-                page.fillOval( xc + 5 * $sl / 4, yc + 5 * $sl / 4, $sl / 5, $sl / 5 );
-
-                page.setColor( COLOR_MEDIUM );
-                page.fillOval( xc + $sl, yc, $sl / 5, $sl / 5 );
-                page.fillOval( xc, yc + $sl, $sl / 5, $sl / 5 );
-                page.fillOval( xc + $sl, yc + $sl, $sl / 5, $sl / 5 );
-                break;
-
-            case 4:
-                page.setColor( COLOR_BLAZE );
-                drawSparks( xc, yc, page );
-
-                page.fillOval( xc + 6 * $sl / 4, yc - 2 * $sl / 4, $sl / 7, $sl / 7 );
-                page.fillOval( xc - 2 * $sl / 4, yc + 6 * $sl / 4, $sl / 7, $sl / 7 );
-                page.fillOval( xc + 6 * $sl / 4, yc + 6 * $sl / 4, $sl / 7, $sl / 7 );
-
-                page.setColor( COLOR_MEDIUM );
-                page.fillOval( xc + 5 * $sl / 4, yc - $sl / 4, $sl / 5, $sl / 5 );
-                page.fillOval( xc - $sl / 4, yc + 5 * $sl / 4, $sl / 5, $sl / 5 );
-                page.fillOval( xc + 5 * $sl / 4, yc + 5 * $sl / 4, $sl / 5, $sl / 5 );
-                break;
-
-            case 5:
-                page.setColor( COLOR_BLAST );
-                drawSparks( xc, yc, page );
-
-                page.fillOval( xc + 7 * $sl / 4, yc - 3 * $sl / 4, $sl / 10, $sl / 10 );
-                page.fillOval( xc - 3 * $sl / 4, yc + 7 * $sl / 4, $sl / 10, $sl / 10 );
-                page.fillOval( xc + 7 * $sl / 4, yc + 7 * $sl / 4, $sl / 10, $sl / 10 );
-
-                page.setColor( COLOR_MEDIUM );
-                page.fillOval( xc + 6 * $sl / 4, yc - 2 * $sl / 4, $sl / 7, $sl / 7 );
-                page.fillOval( xc - 2 * $sl / 4, yc + 6 * $sl / 4, $sl / 7, $sl / 7 );
-                page.fillOval( xc + 6 * $sl / 4, yc + 6 * $sl / 4, $sl / 7, $sl / 7 );
-                break;
-
-            case 6:
-                page.setColor( COLOR_BOLD );
-                drawSparks( xc, yc, page );
-
-                page.setColor( COLOR_MEDIUM );
-                page.fillOval( xc + 7 * $sl / 4, yc - 3 * $sl / 4, $sl / 10, $sl / 10 );
-                page.fillOval( xc - 3 * $sl / 4, yc + 7 * $sl / 4, $sl / 10, $sl / 10 );
-                page.fillOval( xc + 7 * $sl / 4, yc + 7 * $sl / 4, $sl / 10, $sl / 10 );
-                break;
-
-            case 7:
-                page.setColor( COLOR_BRUN );
-                drawSparks( xc, yc, page );
-                break;
-
-            default: // should always be == 8
-                page.setColor( COLOR_BOLD.darker() );
-                drawSparks( xc, yc, page );
-
-                // turn off the animation
-                exploder.stop();
-
-            }// switch( index )
-
-        }// end FATAL
-
-        }// switch( type )
-
-        // 1 - 8 = # of adjacent mines: draw numeral
-        if( $type < MINE && $type > 0 ) {
-            String $num = String.valueOf( $type );
-            page.drawString( $num, xc + $sl / 4, yc + 3 * $sl / 4 );
-        }
-    }
+        case 6:
+            page.setColor( COLOR_BOLD );
+            drawSparks( xc, yc, page );
 
-    /**
-     * Draw a basic unrevealed <code>Square</code> with edge hilites
-     * @param xc - the <i>x</i> coordinate of the upper left corner
-     * @param yc - the <i>y</i> coordinate of the upper left corner
-     * @param page - Graphics object reference
-     */
-    protected void drawSquare(final int xc, final int yc, Graphics page) {
-        int $sl = squareLength;
+            page.setColor( COLOR_MEDIUM );
+            page.fillOval( xc + 7 * $sl / 4, yc - 3 * $sl / 4, $sl / 10, $sl / 10 );
+            page.fillOval( xc - 3 * $sl / 4, yc + 7 * $sl / 4, $sl / 10, $sl / 10 );
+            page.fillOval( xc + 7 * $sl / 4, yc + 7 * $sl / 4, $sl / 10, $sl / 10 );
+            break;
 
-        page.setColor( COLOR_MEDIUM );
-        page.fillRect( xc, yc, squareLength, squareLength );
+        case 7:
+            page.setColor( COLOR_BRUN );
+            drawSparks( xc, yc, page );
+            break;
 
-        page.setColor( COLOR_DARKEST );
-        page.drawLine( xc, yc + $sl - 1, xc + $sl, yc + $sl - 1 ); // bottom
-        page.drawLine( xc + $sl - 1, yc, xc + $sl - 1, yc + $sl ); // right
+        default: // should always be == 8
+            page.setColor( COLOR_BOLD.darker() );
+            drawSparks( xc, yc, page );
 
-        page.setColor( COLOR_LIGHT );
-        page.drawLine( xc, yc, xc + $sl - 1, yc ); // top
-        page.drawLine( xc, yc, xc, yc + $sl - 1 ); // left
+        }// switch( index )
     }
 
     /**
@@ -914,61 +931,6 @@ class MineField extends JLabel implements MouseListener {
      *     INNER CLASSES
      * ========================================================================================= */
 
-    /**
-     * The data structure behind every square in the minefield. - class <code>MineField</code> uses a 2D array of
-     * <code>Squares</code>
-     */
-    class Square {
-        private boolean hasMine = false, isRevealed = false, hasFlag = false, hasQmark = false;
-
-        /** The total number of mines in all neighbouring <code>Squares</code> */
-        private int mineCount;
-
-        //@formatter:off
-        /**
-         * Set the minecount variable of an individual <code>Square</code>
-         * @param count int
-         */
-        void setMinecount(final int count) { mineCount = count;}
-
-        /** @return The total number of mines in all neighbouring <code>Squares</code> */
-        int getMinecount() { return mineCount;}
-
-        /** @return true if NO adjacent mines, otherwise false */
-        boolean isBlank() { return mineCount == 0;}
-
-        /** @return true if this <code>Square</code> has a mine, otherwise false */
-        boolean hasMine() { return hasMine;}
-
-        /** Plants a mine in this <code>Square</code> */
-        void arm() { hasMine = true;}
-
-        /** @return whether a <code>Square</code> has been revealed or not */
-        boolean isRevealed() { return isRevealed;}
-
-        /** Set value of <var>isRevealed</var> to TRUE */
-        void setRevealed() { isRevealed = true;}
-
-        /** @return whether a <code>Square</code> has a flag placed (indicating a mine underneath) */
-        boolean hasFlag() { return hasFlag;}
-
-        /**
-         * Set value of <var>hasFlag</var> to parameter value
-         * @param flag - boolean
-         */
-        void setFlag(final boolean flag) { hasFlag = flag;}
-
-        /** @return whether a <code>Square</code> has a question mark (indicating doubt about a mine placement) */
-        boolean hasQmark() { return hasQmark;}
-
-        /**
-         * Set value of hasQmark to parameter value
-         * @param qmark boolean
-         */
-        void setQmark(final boolean qmark) { hasQmark = qmark;}
-        //@formatter:on
-    }/* inner class Square */
-
     /**
      * Listens for the <code>Timer</code> events which drive the animation explosion
      * @see MineField#exploder
@@ -989,10 +951,12 @@ class MineField extends JLabel implements MouseListener {
         @Override
         public void actionPerformed(final ActionEvent ae) {
             if( ae.getSource() == exploder ) {
-                setMinesText( ++index );
-                if( DEBUG_LEVEL > 0 ) System.out.println( myname() + ": Event index = " + index );
+                ++index;
+                Trace.event( Trace.EXPLODE_TICK, index );
 
-                repaint();
+                // turn off the animation after the last frame
+                if( index >= EXPLODE_INDEX - 1 ) exploder.stop();
+                repaintExplosion();
             } else
                 System.err.println( myname() + ": Event source INVALID!" );
         }
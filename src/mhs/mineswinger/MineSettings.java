@@ -29,6 +29,8 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JRadioButton;
 import javax.swing.JSlider;
+import javax.swing.JSpinner;
+import javax.swing.SpinnerNumberModel;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
@@ -47,14 +49,12 @@ class MineSettings extends JFrame implements ActionListener {
     private static final long serialVersionUID = -9135300519496881599L;
     //@formatter:off
     static final int WINDOW_DEFAULT_WIDTH = 520, 
-                     WINDOW_DEFAULT_HEIGHT = 260,
+                     WINDOW_DEFAULT_HEIGHT = 340,
                      DENSITY_MAJOR_TICK_SPACING = 20, 
                      DENSITY_MINOR_TICK_SPACING = 5;
     //@formatter:on
-    private int DEBUG_LEVEL;
-
     private double density;
-    private int percentDensity, squareLength;
+    private int percentDensity, squareLength, fieldWidth, fieldHeight;
 
     /** reference to the enclosing class */
     private MineSwinger gameview;
@@ -62,10 +62,11 @@ class MineSettings extends JFrame implements ActionListener {
     /** identify the source of action events */
     private Object source;
 
-    private JPanel denPanel, sizePanel, btnPanel;
-    private JLabel denHead, denInfo, sizeHead;
+    private JPanel denPanel, fieldPanel, sizePanel, btnPanel;
+    private JLabel denHead, denInfo, fieldHead, fieldBy, sizeHead;
 
     private JSlider denSlider;
+    private JSpinner widthSpinner, heightSpinner;
     private JButton newBtn, sizeBtn, cancelBtn;
 
     private ButtonGroup sizeGroup;
@@ -84,9 +85,6 @@ class MineSettings extends JFrame implements ActionListener {
      * @see #buildComponents()
      */
     MineSettings(final MineSwinger game) {
-        DEBUG_LEVEL = game.DEBUG_LEVEL;
-        if( DEBUG_LEVEL > 0 ) System.out.println( myname() + Msgs.str( "debug_level" ) + DEBUG_LEVEL );
-
         gameview = game;
         squareLength = MineSwinger.SQUARE_SIZE_MD;
 
@@ -105,7 +103,7 @@ class MineSettings extends JFrame implements ActionListener {
             }
         } );
 
-        getContentPane().setLayout( new GridLayout( 3, 1, 3, 3 ) );
+        getContentPane().setLayout( new GridLayout( 4, 1, 3, 3 ) );
 
         buildComponents();
 
@@ -115,16 +113,19 @@ class MineSettings extends JFrame implements ActionListener {
     /**
      * Build the panels comprising this JFrame
      * @see #buildDensityPanel()
+     * @see #buildFieldPanel()
      * @see #buildSizePanel()
      * @see #buildButtonPanel()
      */
     private void buildComponents() {
         buildDensityPanel();
+        buildFieldPanel();
         buildSizePanel();
         buildButtonPanel();
 
         // insert the panels
         getContentPane().add( denPanel );
+        getContentPane().add( fieldPanel );
         getContentPane().add( sizePanel );
         getContentPane().add( btnPanel );
     }
@@ -159,6 +160,36 @@ class MineSettings extends JFrame implements ActionListener {
         denPanel.add( denSlider );
     }
 
+    /**
+     * Contains the spinners for the number of <code>Squares</code> across and down the MineField
+     * @see #setFieldSize(int, int)
+     */
+    private void buildFieldPanel() {
+        fieldPanel = new JPanel();
+        fieldWidth = gameview.mineField.getFieldWidth();
+        fieldHeight = gameview.mineField.getFieldHeight();
+        fieldHead = new JLabel( Msgs.str( "size.field" ) );
+        fieldBy = new JLabel( Msgs.str( "size.by" ) );
+
+        widthSpinner = new JSpinner( new SpinnerNumberModel( fieldWidth, 1, MineSwinger.FIELD_SIZE_MAX, 1 ) );
+        heightSpinner = new JSpinner( new SpinnerNumberModel( fieldHeight, 1, MineSwinger.FIELD_SIZE_MAX, 1 ) );
+
+        ChangeListener $sizeListener = new ChangeListener() {
+            @Override
+            public void stateChanged(final ChangeEvent ce) {
+                fieldWidth = (Integer) widthSpinner.getValue();
+                fieldHeight = (Integer) heightSpinner.getValue();
+            }
+        };
+        widthSpinner.addChangeListener( $sizeListener );
+        heightSpinner.addChangeListener( $sizeListener );
+
+        fieldPanel.add( fieldHead );
+        fieldPanel.add( widthSpinner );
+        fieldPanel.add( fieldBy );
+        fieldPanel.add( heightSpinner );
+    }
+
     /** Change the size of MineField Squares */
     private void buildSizePanel() {
         // radio buttons for Square size
@@ -211,7 +242,7 @@ class MineSettings extends JFrame implements ActionListener {
      */
     @Override
     public void actionPerformed(final ActionEvent ae) {
-        if( DEBUG_LEVEL > 0 ) System.out.println( myname() + ": Action command = " + ae.getActionCommand() );
+        if( Trace.on( Trace.UI ) ) Trace.event( Trace.ACTION, Trace.label( ae.getActionCommand() ) );
 
         source = ae.getSource();
 
@@ -244,12 +275,23 @@ class MineSettings extends JFrame implements ActionListener {
         denInfo.setText( Integer.toString( percentDensity ) + " %" );
     }
 
+    /**
+     * Show the current MineField dimensions - the game menu may have changed them
+     * @param wd - field width
+     * @param ht - field height
+     */
+    void setFieldSize(final int wd, final int ht) {
+        widthSpinner.setValue( wd );
+        heightSpinner.setValue( ht );
+    }
+
     /** Accept new values and close */
     protected void confirm() {
         gameview.newSquareLength( squareLength );
 
         if( startNew ) {
             gameview.adjustDensity( density );
+            gameview.newFieldSize( fieldWidth, fieldHeight );
             gameview.halt();
             gameview.newGame();
         }
@@ -17,36 +17,36 @@
 package mhs.mineswinger;
 
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.Event;
 import java.awt.Font;
 import java.awt.Frame;
+import java.awt.GraphicsEnvironment;
 import java.awt.GridLayout;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.InputStream;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
+import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.JButton;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
-import javax.swing.JLayeredPane;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 import javax.swing.KeyStroke;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.Timer;
 
-import sun.audio.AudioPlayer;
-import sun.audio.AudioStream;
-
 /**
  * This is a Java Swing MineSweeper game inspired by the classic Windows game.
  * 
@@ -66,7 +66,10 @@ public class MineSwinger extends JFrame {
 
     final String VERSION = myname() + " $Revision: #13 $";
 
-    static final int TIMER_DELAY_MSEC = 1000;
+    /** msec between refreshes of the game time display - the time itself comes from the {@link GameClock} */
+    static final int TIMER_DELAY_MSEC = 100;
+    /** msec between updates of the frame statistics overlay */
+    static final int STATS_DELAY_MSEC = 500;
 
     static final double DEFAULT_DENSITY = 0.21;
 
@@ -82,6 +85,7 @@ public class MineSwinger extends JFrame {
                      FIELD_SIZE_MD = 20, 
                      FIELD_SIZE_LG = 24,
                      FIELD_SIZE_XL = 30,
+                     FIELD_SIZE_MAX = 10000, // largest width or height of a custom field
 
                      SQUARE_SIZE_SM = 18, // length in pixels of each side of an individual square
                      SQUARE_SIZE_MD = 24,
@@ -94,6 +98,9 @@ public class MineSwinger extends JFrame {
                      X_BORDER = 80, // extra space around the mine field
                      Y_BORDER = 60, // for the the labels, buttons, etc
 
+                     ZOOM_MIN = 6, // smallest and largest Square sizes reached by zooming
+                     ZOOM_MAX = 64,
+
                      BOOM = 0, 
                      MOUSE = BOOM + 1, 
                      FLAG = MOUSE + 1, 
@@ -105,6 +112,9 @@ public class MineSwinger extends JFrame {
                      SLOW = BAD_CLEAR + 1, 
                      NUM_SND_CLIPS = SLOW + 1; // must be last entry
 
+    /** change of <code>Square</code> size for each click of the mouse wheel when zooming */
+    static final double ZOOM_FACTOR = 1.25;
+
     // these match up with the ints in the previous list
     static final String[] SND_CLIPS = { 
                     "sounds/boom.au",
@@ -126,39 +136,53 @@ public class MineSwinger extends JFrame {
                     settingsOpen = false, 
                     qMarksOn = false;
 
-    private int seconds, // accumulated game time
-                scoreMultiplier, // increase scoring according to density, etc
-                maxScore, 
-                currentScore = 0;
+    private int scoreMultiplier; // increase scoring according to density, etc
+
+    private long maxScore, 
+                 currentScore = 0;
 
     /**
-     * length, in pixels, of each side of the <code>MineField</code><br>
-     * = (current side length of each square) * (# of squares on each side of field)
+     * width and height, in pixels, of the <code>MineField</code><br>
+     * = (current side length of each square) * (# of squares across or down the field)
      */
-    private int fieldDim;
+    private int fieldWidthDim, fieldHeightDim;
 
     private boolean soundsActive = false;
 
+    /** the {@link #SND_CLIPS}, decoded once */
+    private SoundBank sounds;
+
     MineField mineField;
     MineSettings settingsFrame;
 
-    private JLayeredPane pane;
+    /** shows the visible part of the <code>MineField</code> */
+    private JScrollPane scroller;
+
+    /** <code>Square</code> size reached by zooming, before rounding */
+    private double zoomLength;
+
+    /** draws the <code>MineField</code> from a render thread in active rendering mode - null otherwise */
+    private ActiveField activeField;
     private MineListener listener;
-    private Timer gameClock;
+    private Timer gameClock, statsClock;
+
+    /** playing time of the current game */
+    private final GameClock clock = new GameClock();
 
     private KeyStroke ks;
     private JMenuBar gameBar;
     private JMenu gameMenu, settingsMenu;
     private JMenuItem tinyFieldItem, smallFieldItem, medFieldItem, largeFieldItem, hugeFieldItem,
-                      exitGameItem, newGameItem, showSettingsItem;
+                      exitGameItem, newGameItem, showSettingsItem, dumpTraceItem;
 
-    private JCheckBoxMenuItem qMarkItem;
+    private JCheckBoxMenuItem qMarkItem, activeItem, statsItem, traceItem;
 
     private JPanel scorePanel, infoPanel;
     private JButton soundBtn, resetBtn;
     private Box infoBox;
 
-    private JLabel infoMesg, timeMesg, scoreMesg, minesMesg;
+    private ClockLabel timeMesg;
+    private JLabel infoMesg, scoreMesg, minesMesg, statsMesg;
     private JLabel timeTitle, scoreTitle, minesTitle;
     //@formatter:on
     /*
@@ -189,7 +213,9 @@ public class MineSwinger extends JFrame {
      */
     public MineSwinger(final int debug) {
         DEBUG_LEVEL = debug;
-        System.out.println( myname() + Msgs.str( "debug_level" ) + DEBUG_LEVEL );
+        // the debug level switches on the trace categories it used to print, as well as any already set
+        Trace.setCategories( Trace.getCategories() | Trace.forLevel( DEBUG_LEVEL ) );
+        Trace.event( Trace.LEVEL, DEBUG_LEVEL );
 
         setDefaultCloseOperation( JFrame.EXIT_ON_CLOSE );
         setTitle( VERSION );
@@ -197,12 +223,28 @@ public class MineSwinger extends JFrame {
 
         listener = new MineListener();
         gameClock = new Timer( TIMER_DELAY_MSEC, listener );
+        statsClock = new Timer( STATS_DELAY_MSEC, listener );
+        sounds = new SoundBank( System.getProperty( "user.dir" ), SND_CLIPS );
 
         buildFonts();
         buildComponents();
 
         setFocusable( true );
-        setResizable( false );
+        setResizable( true );
+
+        // the game time does not run while the game is iconified
+        addWindowListener( new WindowAdapter() {
+            @Override
+            public void windowIconified(final WindowEvent evt) {
+                clock.pause();
+            }
+
+            @Override
+            public void windowDeiconified(final WindowEvent evt) {
+                clock.resume();
+                runClock();
+            }
+        } );
     }
 
     /**
@@ -297,6 +339,30 @@ public class MineSwinger extends JFrame {
         qMarkItem.setMnemonic( 'Q' );
         qMarkItem.addActionListener( listener );
 
+        activeItem = new JCheckBoxMenuItem( Msgs.str( "active" ), false );
+        ks = KeyStroke.getKeyStroke( KeyEvent.VK_A, Event.ALT_MASK );
+        activeItem.setAccelerator( ks );
+        activeItem.setMnemonic( 'A' );
+        activeItem.addActionListener( listener );
+
+        statsItem = new JCheckBoxMenuItem( Msgs.str( "stats" ), false );
+        ks = KeyStroke.getKeyStroke( KeyEvent.VK_F, Event.ALT_MASK );
+        statsItem.setAccelerator( ks );
+        statsItem.setMnemonic( 'F' );
+        statsItem.addActionListener( listener );
+
+        traceItem = new JCheckBoxMenuItem( Msgs.str( "trace" ), Trace.getCategories() != 0 );
+        ks = KeyStroke.getKeyStroke( KeyEvent.VK_R, Event.ALT_MASK );
+        traceItem.setAccelerator( ks );
+        traceItem.setMnemonic( 'R' );
+        traceItem.addActionListener( listener );
+
+        dumpTraceItem = new JMenuItem( Msgs.str( "trace.dump" ) );
+        ks = KeyStroke.getKeyStroke( KeyEvent.VK_D, Event.ALT_MASK );
+        dumpTraceItem.setAccelerator( ks );
+        dumpTraceItem.setMnemonic( 'D' );
+        dumpTraceItem.addActionListener( listener );
+
         newGameItem = new JMenuItem( Msgs.str( "game.new" ) );
         ks = KeyStroke.getKeyStroke( KeyEvent.VK_F2, 0 );
         newGameItem.setAccelerator( ks );
@@ -309,6 +375,10 @@ public class MineSwinger extends JFrame {
         showSettingsItem.addActionListener( listener );
 
         settingsMenu.add( qMarkItem );
+        settingsMenu.add( activeItem );
+        settingsMenu.add( statsItem );
+        settingsMenu.add( traceItem );
+        settingsMenu.add( dumpTraceItem );
         settingsMenu.add( newGameItem );
         settingsMenu.add( showSettingsItem );
     }
@@ -330,7 +400,7 @@ public class MineSwinger extends JFrame {
         scorePanel.add( minesMesg );
 
         timeTitle = new JLabel( Msgs.str( "Time" ) );
-        timeMesg = new JLabel( Msgs.str( "zeroTime" ) );
+        timeMesg = new ClockLabel( Msgs.str( "zeroTime" ) );
         scorePanel.add( timeTitle );
         scorePanel.add( timeMesg );
     }
@@ -363,6 +433,14 @@ public class MineSwinger extends JFrame {
         infoBox.add( infoMesg );
         infoBox.add( Box.createGlue() );
 
+        // frame statistics overlay: hidden until chosen from the Settings menu
+        statsMesg = new JLabel( "", SwingConstants.CENTER );
+        statsMesg.setFont( fontSMALL );
+        statsMesg.setForeground( COLOR_INFO_FRGRND );
+        statsMesg.setVisible( false );
+        infoBox.add( statsMesg );
+        infoBox.add( Box.createGlue() );
+
         infoPanel.add( infoBox );
     }
 
@@ -386,18 +464,63 @@ public class MineSwinger extends JFrame {
     }
 
     /**
-     * create the MineField and place it in a new JLayeredPane
+     * create the MineField and place it in a new JScrollPane, so a field bigger than the screen can be scrolled and zoomed
      * @see MineField#MineField(MineSwinger)
      */
     private void createMineField() {
         mineField = new MineField( this );
-        mineField.setFieldLength( FIELD_SIZE_MD );
+        mineField.setFieldSize( FIELD_SIZE_MD, FIELD_SIZE_MD );
         mineField.setSquareLength( SQUARE_SIZE_MD );
 
-        // set up JLayeredPane
-        pane = new JLayeredPane();
-        pane.add( mineField, JLayeredPane.DEFAULT_LAYER );
-        getContentPane().add( pane, "Center" );
+        // set up JScrollPane
+        scroller = new JScrollPane( mineField );
+        scroller.setBorder( BorderFactory.createEmptyBorder( Y_BORDER / 2, X_BORDER, Y_BORDER / 2, X_BORDER ) );
+        scroller.setOpaque( false );
+        scroller.getViewport().setBackground( COLOR_GAME_BKGRND );
+        getContentPane().add( scroller, "Center" );
+    }
+
+    /**
+     * Show the field on an {@link ActiveField} drawn by its own render thread, or in the usual scroll pane painted by Swing
+     * - the visible part of the field stays the same
+     * @param on - true for active rendering
+     */
+    private void setActiveRendering(final boolean on) {
+        if( on == (activeField != null) ) return;
+
+        if( on ) {
+            activeField = new ActiveField( mineField );
+            Point $view = scroller.getViewport().getViewPosition();
+            getContentPane().remove( scroller );
+            getContentPane().add( activeField, "Center" );
+            validate();
+            activeField.setOrigin( $view.x, $view.y );
+            mineField.setActiveField( activeField );
+        } else {
+            Point $origin = activeField.getOrigin();
+            mineField.setActiveField( null );
+            getContentPane().remove( activeField );
+            activeField = null;
+            getContentPane().add( scroller, "Center" );
+            validate();
+            scroller.getViewport().setViewPosition( $origin );
+        }
+        repaint();
+    }
+
+    /**
+     * Show or hide the frame statistics overlay in the info panel
+     * @param on - true to show
+     * @see RenderStats#summary()
+     */
+    private void showStats(final boolean on) {
+        statsMesg.setVisible( on );
+        if( on ) {
+            statsMesg.setText( mineField.getStats().summary() );
+            statsClock.start();
+        } else
+            statsClock.stop();
+        infoPanel.validate();
     }
 
     /** stop the game */
@@ -405,10 +528,11 @@ public class MineSwinger extends JFrame {
         mineField.setShaded( false );
         validate();// so the last square gets painted properly
 
-        mineField.removeMouseListener( mineField );
+        mineField.setListening( false );
         mineField.setFirstPress( true );
 
         isRunning = false;
+        clock.stop();
         gameClock.stop();
     }
 
@@ -434,7 +558,7 @@ public class MineSwinger extends JFrame {
         minesTitle.setText( Msgs.str( "mines.left" ) );
         setMinesMesg( mineField.getNumHiddenMines() );
 
-        pane.repaint();
+        scroller.repaint();
     }
 
     /** small, medium and large -- for corresponding Square sizes */
@@ -458,38 +582,64 @@ public class MineSwinger extends JFrame {
             return;
         }
 
-        // TODO Separate thread?
-        // open the sound file as a Java input stream
-        InputStream in;
-        try {
-            in = new FileInputStream( System.getProperty( "user.dir" ) + System.getProperty( "file.separator" )
-                            + SND_CLIPS[track] );
-            // create an audiostream from the inputstream
-            AudioStream audioStream = new AudioStream( in );
-            // play the audio clip with the audioplayer class
-            AudioPlayer.player.start( audioStream );
-        } catch( FileNotFoundException fnfe ) {
-            System.err.println( myname() + Msgs.str( "Snd.play" ) + SND_CLIPS[track] + "NOT Found:" + fnfe );
-        } catch( IOException ioe ) {
-            System.err.println( myname() + Msgs.str( "Snd.play" ) + SND_CLIPS[track] + "IO Problem: " + ioe );
-        }
-        if( DEBUG_LEVEL > 1 ) System.out.println( myname() + Msgs.str( "Snd.play" ) + "Playing '" + SND_CLIPS[track] + "'" );
+        // queued for the audio thread: never waits for the sound
+        sounds.play( track );
+        Trace.event( Trace.SOUND_PLAY, track );
     }
 
     /** @param len - new length */
     protected void newSquareLength(final int len) {
         // tell the mine field that Settings has changed the Square size
+        setSquareLength( len );
+        adjustSize();
+    }
+
+    /**
+     * Change the <code>Square</code> size and the matching font, WITHOUT changing the size of the frame
+     * @param len - new length
+     */
+    private void setSquareLength(final int len) {
         mineField.setSquareLength( len );
 
         if( len == SQUARE_SIZE_SM )
             mineField.setFont( fontSMALL );
+        else if( len == SQUARE_SIZE_MD )
+            mineField.setFont( fontMEDIUM );
         else if( len == SQUARE_SIZE_LG )
             mineField.setFont( fontLARGE );
         else
-            // default: should only ever be == SQUARE_SIZE_MD
-            mineField.setFont( fontMEDIUM );
+            // a zoomed size: same proportions as the standard fonts
+            mineField.setFont( SquareTiles.fontFor( len ) );
+    }
 
-        adjustSize();
+    /**
+     * Zoom the field in or out by {@link #ZOOM_FACTOR} per step, keeping the <code>Square</code> under the mouse in the same
+     * place - fractions of a step (e.g. from a touchpad) add up until the <code>Square</code> size changes
+     * @param steps - number of steps to zoom in, negative to zoom out
+     * @param x - mouse x co-ordinate in the field
+     * @param y - mouse y co-ordinate in the field
+     */
+    protected void zoom(final double steps, final int x, final int y) {
+        int $old = mineField.getSquareLength();
+        if( Math.round( zoomLength ) != $old ) zoomLength = $old; // the size was changed some other way
+
+        zoomLength = Math.max( ZOOM_MIN, Math.min( ZOOM_MAX, zoomLength * Math.pow( ZOOM_FACTOR, steps ) ) );
+        int $len = (int) Math.round( zoomLength );
+        if( $len == $old ) return;
+
+        Point $view = scroller.getViewport().getViewPosition();
+        int $mousex = x - $view.x, $mousey = y - $view.y; // mouse position in the viewport
+
+        setSquareLength( $len );
+        scroller.validate();
+
+        // the point under the mouse stays there, as far as the edges of the field allow
+        Dimension $extent = scroller.getViewport().getExtentSize();
+        int $maxx = Math.max( 0, mineField.getWidth() - $extent.width );
+        int $maxy = Math.max( 0, mineField.getHeight() - $extent.height );
+        scroller.getViewport().setViewPosition(
+                        new Point( Math.max( 0, Math.min( $maxx, (int) ((long) x * $len / $old) - $mousex ) ),
+                                   Math.max( 0, Math.min( $maxy, (int) ((long) y * $len / $old) - $mousey ) ) ) );
     }
 
     /**
@@ -504,20 +654,34 @@ public class MineSwinger extends JFrame {
         newGame();
     }
 
+    /**
+     * Change the number of <code>Squares</code> across and down the field and adjust the frame
+     * @param wd - new field width
+     * @param ht - new field height
+     */
+    protected void newFieldSize(final int wd, final int ht) {
+        mineField.setFieldSize( wd, ht );
+        adjustSize();
+    }
+
     /**
      * Adjust the size of the game frame as the <code>Square</code> size or number of <code>Squares</code> in the field have
-     * changed
+     * changed - a field bigger than the screen is scrolled
      */
     protected void adjustSize() {
-        fieldDim = mineField.getSquareLength() * mineField.getFieldLength();
-        setSize( fieldDim + X_BORDER * 2, fieldDim + Y_BORDER * 3 );
+        fieldWidthDim = mineField.getSquareLength() * mineField.getFieldWidth();
+        fieldHeightDim = mineField.getSquareLength() * mineField.getFieldHeight();
+
+        Rectangle $screen = GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds();
+        setSize( Math.min( fieldWidthDim + X_BORDER * 2, $screen.width ),
+                 Math.min( fieldHeightDim + Y_BORDER * 3, $screen.height ) );
         validate();
     }
 
-    /** adjust score according to current density and fieldLength */
+    /** adjust score according to current density and field size */
     protected void adjustScore() {
         scoreMultiplier = (int) (mineField.getDensity() * 100);
-        maxScore = scoreMultiplier * (int) Math.pow( mineField.getFieldLength(), 2.0 );
+        maxScore = (long) scoreMultiplier * mineField.getFieldWidth() * mineField.getFieldHeight();
     }
 
     /** @param density - new value */
@@ -545,29 +709,22 @@ public class MineSwinger extends JFrame {
     protected void startClock() {
         if( !isRunning ) {
             isRunning = true;
-            seconds = 0;
+            clock.start();
+            if( getState() == Frame.ICONIFIED ) clock.pause();
             timeMesg.setText( Msgs.str( "zeroTime" ) );
             infoMesg.setText( Msgs.str( "Running" ) );
             gameClock.start();
         }
     }
 
-    /** calculate and display the current elapsed game time */
+    /** display the current elapsed game time - repaints only when the second shown changes */
     protected void runClock() {
-        // stop gameClock while game is iconified
-        if( isRunning && (getState() == Frame.NORMAL) ) {
-            seconds++;
-
-            int hrs = seconds / 3600;
-            int mins = seconds / 60 - hrs * 60;
-            int secs = seconds - mins * 60 - hrs * 3600;
-
-            String strHr = (hrs < 10 ? "0" : "") + Integer.toString( hrs );
-            String strMin = (mins < 10 ? "0" : "") + Integer.toString( mins );
-            String strSec = (secs < 10 ? "0" : "") + Integer.toString( secs );
+        if( isRunning ) timeMesg.setTime( clock.getElapsedMillis(), false );
+    }
 
-            timeMesg.setText( strHr + ":" + strMin + ":" + strSec );
-        }
+    /** @return playing time of the current or latest game, in msec */
+    protected long getGameMillis() {
+        return clock.getElapsedMillis();
     }
 
     /**
@@ -579,25 +736,30 @@ public class MineSwinger extends JFrame {
     }
 
     /**
-     * calculate the game score and update the display<br>
+     * calculate the game score and update the display ONCE for a move, however many <code>Squares</code> it changed<br>
      * - show appropriate messages and play sounds if activated
-     * @param increase - boolean indicating if increasing or decreasing score
+     * @param move - result of the move
      */
-    protected void setScore(final boolean increase) {
+    protected void setScore(final MoveResult move) {
         setMinesMesg( mineField.getNumHiddenMines() );
 
-        if( increase ) {
-            currentScore += scoreMultiplier;
-            scoreMesg.setText( " " + Integer.toString( currentScore ) );
+        if( move.getScoreDelta() != 0 ) {
+            currentScore += (long) scoreMultiplier * move.getScoreDelta();
+            scoreMesg.setText( " " + Long.toString( currentScore ) );
 
             /* success */
-            if( (currentScore == maxScore) && (mineField.getNumHiddenMines() == 0) ) {
+            if( move.isWon() ) {
                 double d = mineField.getDensity();
 
                 minesTitle.setText( Msgs.str( "mines.found" ) );
                 minesMesg.setText( Integer.toString( mineField.getNumTotalMines() ) );
 
-                currentScore += (maxScore - (100 - scoreMultiplier) * (seconds / 2));
+                // the final time, to the msec
+                clock.stop();
+                long $millis = clock.getElapsedMillis();
+                timeMesg.setTime( $millis, true );
+
+                currentScore += (maxScore - (100 - scoreMultiplier) * ($millis / 2000));
                 scoreTitle.setText( Msgs.str( "Final" ) + Msgs.str( "Score" ) );
                 timeTitle.setText( Msgs.str( "Final" ) + Msgs.str( "Time" ) );
 
@@ -608,7 +770,7 @@ public class MineSwinger extends JFrame {
                     scoreMesg.setText( Msgs.str( "zd.scr" ) );
                     infoMesg.setText( Msgs.str( "goof.info" ) );
                 } else {
-                    scoreMesg.setText( " " + Integer.toString( currentScore ) );
+                    scoreMesg.setText( " " + Long.toString( currentScore ) );
 
                     if( currentScore >= maxScore * 0.5 ) {
                         if( (d > 0.0) && (d <= DEFAULT_DENSITY * 0.5) ) {
@@ -635,15 +797,12 @@ public class MineSwinger extends JFrame {
                 mineField.paintArea(); // so the last flag is painted
                 halt();
             }// if game over
-        } else // decrease
-        {
-            currentScore -= scoreMultiplier;
-            scoreMesg.setText( Integer.toString( currentScore ) );
         }
     }
 
     /** set location of MineSettings frame and make visible */
     protected void showMineSettings() {
+        settingsFrame.setFieldSize( mineField.getFieldWidth(), mineField.getFieldHeight() );
         settingsFrame.setLocation( scorePanel.getLocationOnScreen() );
         settingsFrame.setVisible( true );
     }
@@ -658,8 +817,10 @@ public class MineSwinger extends JFrame {
     /** shut down <code>Minesweeper</code> & <code>MineSettings</code> (if open) */
     private void end() {
         isRunning = false;
+        clock.stop();
         if( mineField.exploder.isRunning() ) mineField.exploder.stop();
         if( settingsOpen ) settingsFrame.dispose();
+        sounds.close();
     }
 
     /** @return simple name of my Class */
@@ -689,10 +850,12 @@ public class MineSwinger extends JFrame {
             source = ae.getSource();
             if( source == gameClock ) {
                 runClock();
-                if( DEBUG_LEVEL > 2 ) System.out.println( myname() + ": Clock event" );
+                if( Trace.on( Trace.CLOCK ) ) Trace.event( Trace.GAME_TICK, clock.getElapsedMillis() );
+            } else if( source == statsClock ) {
+                statsMesg.setText( mineField.getStats().summary() );
             } else // not the gameClock
             {
-                if( DEBUG_LEVEL > 0 ) System.out.println( myname() + ": Action command > " + ae.getActionCommand() );
+                if( Trace.on( Trace.UI ) ) Trace.event( Trace.ACTION, Trace.label( ae.getActionCommand() ) );
 
                 // NEW GAME
                 if( (source == resetBtn) || (source == newGameItem) ) {
@@ -720,6 +883,22 @@ public class MineSwinger extends JFrame {
 
                     if( !qMarksOn ) mineField.clearQmarks();
                 }
+                // ACTIVE RENDERING
+                else if( source == activeItem ) {
+                    setActiveRendering( activeItem.isSelected() );
+                }
+                // FRAME STATISTICS
+                else if( source == statsItem ) {
+                    showStats( statsItem.isSelected() );
+                }
+                // TRACING
+                else if( source == traceItem ) {
+                    Trace.setCategories( traceItem.isSelected() ? Trace.ALL : 0 );
+                }
+                // DUMP TRACE
+                else if( source == dumpTraceItem ) {
+                    Trace.dump( System.out );
+                }
                 // LAUNCH SETTINGS FRAME
                 else if( source == showSettingsItem ) {
                     showMineSettings();
@@ -727,14 +906,14 @@ public class MineSwinger extends JFrame {
                 // MINEFIELD SIZE
                 else {
                     if( source == tinyFieldItem )
-                        mineField.setFieldLength( FIELD_SIZE_XS );
+                        mineField.setFieldSize( FIELD_SIZE_XS, FIELD_SIZE_XS );
                     else if( source == smallFieldItem )
-                        mineField.setFieldLength( FIELD_SIZE_SM );
+                        mineField.setFieldSize( FIELD_SIZE_SM, FIELD_SIZE_SM );
                     else if( source == medFieldItem )
-                        mineField.setFieldLength( FIELD_SIZE_MD );
+                        mineField.setFieldSize( FIELD_SIZE_MD, FIELD_SIZE_MD );
                     else if( source == largeFieldItem )
-                        mineField.setFieldLength( FIELD_SIZE_LG );
-                    else if( source == hugeFieldItem ) mineField.setFieldLength( FIELD_SIZE_XL );
+                        mineField.setFieldSize( FIELD_SIZE_LG, FIELD_SIZE_LG );
+                    else if( source == hugeFieldItem ) mineField.setFieldSize( FIELD_SIZE_XL, FIELD_SIZE_XL );
 
                     newSize();
                 }
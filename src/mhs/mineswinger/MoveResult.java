@@ -0,0 +1,69 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * MoveResult.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+/**
+ * MoveResult gathers everything a single {@link MineEngine} move changed, so the view can update the score and the
+ * counters ONCE per user action however many <code>Squares</code> the move revealed.
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineEngine
+ */
+public final class MoveResult {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+    //@formatter:off
+    /** one of the {@link MineEngine} outcome codes */
+    private final int outcome;
+
+    /** number of <code>Squares</code> revealed */
+    private final int revealed;
+
+    /** net change in the number of revealed or flagged <code>Squares</code>, i.e. in the score */
+    private final int scoreDelta;
+
+    /** true if the move won the game */
+    private final boolean won;
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * CONSTRUCTOR
+     * @param code - outcome code
+     * @param count - number of Squares revealed
+     * @param delta - net change in the number of revealed or flagged Squares
+     * @param win - true if the game was won
+     */
+    MoveResult(final int code, final int count, final int delta, final boolean win) {
+        outcome = code;
+        revealed = count;
+        scoreDelta = delta;
+        won = win;
+    }
+
+    //@formatter:off
+    /** @return {@link MineEngine} outcome code */
+    public int getOutcome() { return outcome;}
+
+    /** @return number of <code>Squares</code> revealed */
+    public int getRevealed() { return revealed;}
+
+    /** @return net change in the number of revealed or flagged <code>Squares</code> */
+    public int getScoreDelta() { return scoreDelta;}
+
+    /** @return true if the move won the game */
+    public boolean isWon() { return won;}
+    //@formatter:on
+
+}/* class MoveResult */
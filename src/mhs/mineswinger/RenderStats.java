@@ -0,0 +1,146 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * RenderStats.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+/**
+ * RenderStats collects cheap timing and size figures for every paint of the {@link MineField}, so rendering regressions
+ * on large fields show up without turning up <code>DEBUG_LEVEL</code><br>
+ * - each figure goes into a {@link Histogram} with power-of-two buckets: recording is a few arithmetic operations and
+ * never allocates<br>
+ * - the paint figures are written by the thread painting the field: the Event Dispatch Thread, or the render thread of
+ * an {@link ActiveField} in active rendering - the move and area times are written on the Event Dispatch Thread<br>
+ * - so each {@link Histogram} has one writer at a time and takes no lock: a reader on another thread, e.g. the summary
+ * on the Event Dispatch Thread while the render thread paints, may see slightly stale numbers
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineField#getStats()
+ */
+class RenderStats {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+    //@formatter:off
+    /** nanoseconds per call of {@link MineField#paintComponent} */
+    final Histogram paintNanos = new Histogram();
+
+    /** <code>Squares</code> drawn from the tiles per paint */
+    final Histogram cellsDrawn = new Histogram();
+
+    /** pixels in the clip region of each paint */
+    final Histogram regionPixels = new Histogram();
+
+    /** nanoseconds per {@link MineEngine} move on the {@link EngineThread} - recorded when the move is applied */
+    final Histogram moveNanos = new Histogram();
+
+    /** nanoseconds per call of {@link MineField#paintArea} */
+    final Histogram areaNanos = new Histogram();
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * Record one paint
+     * @param nanos - time taken
+     * @param cells - number of <code>Squares</code> drawn
+     * @param pixels - size of the clip region
+     */
+    void recordPaint(final long nanos, final int cells, final long pixels) {
+        paintNanos.record( nanos );
+        cellsDrawn.record( cells );
+        regionPixels.record( pixels );
+    }
+
+    /** forget everything recorded so far */
+    void reset() {
+        paintNanos.reset();
+        cellsDrawn.reset();
+        regionPixels.reset();
+        moveNanos.reset();
+        areaNanos.reset();
+    }
+
+    /** @return one line summary for the frame statistics overlay */
+    String summary() {
+        return String.format( "paint %.2f ms (p99 %.2f max %.2f) | cells %d (max %d) | area %d px"
+                                              + " | move %.2f ms | %d paints",
+                              paintNanos.getMean() / 1e6, paintNanos.getPercentile( 0.99 ) / 1e6, paintNanos.getMax() / 1e6,
+                              cellsDrawn.getLast(), cellsDrawn.getMax(), regionPixels.getLast(), moveNanos.getMean() / 1e6,
+                              paintNanos.getCount() );
+    }
+
+    /*
+     *     INNER CLASSES
+     * ===================================================================================================================== */
+
+    /**
+     * Histogram of non-negative values in power-of-two buckets, plus the count, sum, maximum and latest value
+     */
+    static class Histogram {
+        /** bucket 0 holds 0, bucket <var>b</var> holds values from 2^(b-1) to 2^b - 1 */
+        private final long[] buckets = new long[65];
+
+        private long count, sum, max, last;
+
+        /** @param value - add this value */
+        void record(final long value) {
+            long $value = Math.max( 0, value );
+            buckets[64 - Long.numberOfLeadingZeros( $value )]++;
+            count++;
+            sum += $value;
+            if( $value > max ) max = $value;
+            last = $value;
+        }
+
+        /** forget all values */
+        void reset() {
+            for( int b = 0; b < buckets.length; b++ )
+                buckets[b] = 0;
+            count = sum = max = last = 0;
+        }
+
+        //@formatter:off
+        /** @return number of values recorded */
+        long getCount() { return count;}
+
+        /** @return largest value recorded */
+        long getMax() { return max;}
+
+        /** @return latest value recorded */
+        long getLast() { return last;}
+
+        /** @return mean of the values recorded, or 0 if none */
+        double getMean() { return (count == 0) ? 0 : (double) sum / count;}
+        //@formatter:on
+
+        /**
+         * @param fraction - e.g. 0.99 for the 99th percentile
+         * @return upper bound of the bucket holding that percentile, no more than the maximum - or 0 if none recorded
+         */
+        long getPercentile(final double fraction) {
+            long $rank = (long) Math.ceil( fraction * count );
+            long $seen = 0;
+            for( int b = 0; b < buckets.length; b++ ) {
+                $seen += buckets[b];
+                if( $seen >= $rank && $seen > 0 )
+                    return Math.min( max, (b == 0) ? 0 : (b == 64) ? Long.MAX_VALUE : (1L << b) - 1 );
+            }
+            return max;
+        }
+
+        /** @return the counts in each bucket */
+        long[] getBuckets() {
+            return buckets.clone();
+        }
+
+    }/* inner class Histogram */
+
+}/* class RenderStats */
@@ -0,0 +1,329 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * SoundBank.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * SoundBank holds the game sounds decoded once, and mixes them in software into a single output line, so that playing a
+ * sound costs no file I/O, decoding or new audio stream<br>
+ * - every sound is converted at load time to the one {@link #MIX_FORMAT}<br>
+ * - {@link #play} only queues a trigger and never blocks the caller: the mixer thread starts the voices and writes one
+ * block of {@link #BLOCK_FRAMES} at a time to the line<br>
+ * - a sound plays at most {@link #VOICES_PER_SOUND} times at once and there are at most {@link #MAX_VOICES} voices: a new
+ * voice beyond the limit takes over the oldest one<br>
+ * - a trigger within {@link #COALESCE_NANOS} of the last start of the same sound is dropped, as are triggers which arrive
+ * while {@link #MAX_PENDING} are already waiting<br>
+ * - so the mixing cost is bounded, however fast the sounds are asked for
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineSwinger#playSound(int)
+ */
+class SoundBank implements Runnable {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+    //@formatter:off
+    /** sample rate of the mix */
+    static final float MIX_RATE = 22050f;
+    /** 16-bit signed little-endian mono */
+    static final AudioFormat MIX_FORMAT = new AudioFormat( MIX_RATE, 16, 1, true, false );
+
+    /** frames mixed and written at a time: about 23 msec */
+    static final int BLOCK_FRAMES = 512;
+    /** blocks held by the output line */
+    static final int LINE_BLOCKS = 4;
+
+    /** most voices of the same sound playing at once */
+    static final int VOICES_PER_SOUND = 2;
+    /** most voices playing at once */
+    static final int MAX_VOICES = 8;
+
+    /** a sound triggered again within this many nanoseconds of its last start is not started again */
+    static final long COALESCE_NANOS = 40000000L;
+    /** most triggers waiting for the mixer */
+    static final int MAX_PENDING = 32;
+
+    /** msec the mixer waits for a trigger while nothing is playing */
+    static final long IDLE_WAIT_MSEC = 100;
+
+    /** directory holding the sound files */
+    private final String directory;
+    /** names of the sound files */
+    private final String[] files;
+
+    /** samples of each sound in the {@link #MIX_FORMAT} - null for a sound which could not be loaded */
+    private short[][] samples;
+
+    /** sounds asked for and not yet started */
+    private final BlockingQueue<Integer> triggers = new ArrayBlockingQueue<Integer>( MAX_PENDING );
+
+    /** time of the latest start of each sound */
+    private final long[] lastStart;
+
+    /** sound, position and start time of each voice playing */
+    private final int[] voiceSound = new int[MAX_VOICES], voicePos = new int[MAX_VOICES];
+    private final long[] voiceStart = new long[MAX_VOICES];
+    /** number of voices playing */
+    private int voiceCount;
+
+    /** the mix of the current block, before clipping */
+    private final int[] mix = new int[BLOCK_FRAMES];
+    /** the current block in the {@link #MIX_FORMAT} */
+    private final byte[] block = new byte[BLOCK_FRAMES * 2];
+
+    /** the mixer runs while this is set */
+    private volatile boolean running = true;
+
+    /** loads the sounds, then mixes */
+    private final Thread mixer;
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * CONSTRUCTOR - starts the mixer thread, which first loads the sounds
+     * @param dir - directory holding the sound files
+     * @param names - names of the sound files, relative to <var>dir</var>
+     */
+    SoundBank(final String dir, final String[] names) {
+        directory = dir;
+        files = names;
+        lastStart = new long[names.length];
+
+        mixer = new Thread( this, "MineSwinger-audio" );
+        mixer.setDaemon( true );
+        mixer.setPriority( Thread.MAX_PRIORITY );
+        mixer.start();
+    }
+
+    /**
+     * Play a sound from the start - returns at once, and drops the request if too many are waiting
+     * @param track - index of the sound
+     */
+    void play(final int track) {
+        triggers.offer( track );
+    }
+
+    /** stop the mixer and release the line */
+    void close() {
+        running = false;
+        mixer.interrupt();
+    }
+
+    /** the mixer loop: start the voices asked for, then mix and write one block, until closed */
+    @Override
+    public void run() {
+        short[][] $samples = new short[files.length][];
+        for( int i = 0; i < files.length; i++ )
+            $samples[i] = loadSound( new File( directory, files[i] ) );
+        samples = $samples;
+
+        SourceDataLine $line;
+        try {
+            $line = AudioSystem.getSourceDataLine( MIX_FORMAT );
+            $line.open( MIX_FORMAT, block.length * LINE_BLOCKS );
+            $line.start();
+        } catch( LineUnavailableException lue ) {
+            System.err.println( "SoundBank.run() > NO audio line: " + lue );
+            return;
+        } catch( IllegalArgumentException iae ) {
+            // no audio device at all
+            System.err.println( "SoundBank.run() > NO audio line: " + iae );
+            return;
+        }
+
+        try {
+            while( running ) {
+                // sleep while there is nothing to play
+                Integer $track = (voiceCount == 0) ? triggers.poll( IDLE_WAIT_MSEC, TimeUnit.MILLISECONDS )
+                                : triggers.poll();
+                while( $track != null ) {
+                    startVoice( $track );
+                    $track = triggers.poll();
+                }
+                if( voiceCount == 0 ) continue;
+
+                mixBlock();
+                $line.write( block, 0, block.length ); // blocks until the line has room: paces the loop
+            }
+        } catch( InterruptedException ie ) {
+            // closed
+        } finally {
+            $line.stop();
+            $line.close();
+        }
+    }
+
+    /**
+     * Start a voice of a sound, unless the same sound started very recently - beyond the voice limits, the oldest voice
+     * of the same sound, or else the oldest voice of all, is taken over
+     * @param track - index of the sound
+     */
+    private void startVoice(final int track) {
+        if( track < 0 || track >= samples.length || samples[track] == null ) return;
+
+        long $now = System.nanoTime();
+        if( lastStart[track] != 0 && $now - lastStart[track] < COALESCE_NANOS ) return;
+        lastStart[track] = $now;
+
+        int $same = 0, $oldestSame = -1, $oldest = -1;
+        for( int v = 0; v < voiceCount; v++ ) {
+            if( voiceSound[v] == track ) {
+                $same++;
+                if( $oldestSame < 0 || voiceStart[v] < voiceStart[$oldestSame] ) $oldestSame = v;
+            }
+            if( $oldest < 0 || voiceStart[v] < voiceStart[$oldest] ) $oldest = v;
+        }
+
+        int v;
+        if( $same >= VOICES_PER_SOUND )
+            v = $oldestSame;
+        else if( voiceCount == MAX_VOICES )
+            v = $oldest;
+        else
+            v = voiceCount++;
+
+        voiceSound[v] = track;
+        voicePos[v] = 0;
+        voiceStart[v] = $now;
+    }
+
+    /** add one block of every voice into {@link #block}, and drop the voices which finish */
+    private void mixBlock() {
+        for( int i = 0; i < BLOCK_FRAMES; i++ )
+            mix[i] = 0;
+
+        int v = 0;
+        while( v < voiceCount ) {
+            short[] $sound = samples[voiceSound[v]];
+            int $pos = voicePos[v];
+            int $len = Math.min( BLOCK_FRAMES, $sound.length - $pos );
+            for( int i = 0; i < $len; i++ )
+                mix[i] += $sound[$pos + i];
+
+            voicePos[v] = $pos + $len;
+            if( voicePos[v] >= $sound.length ) {
+                // finished: move the last voice into its place
+                voiceCount--;
+                voiceSound[v] = voiceSound[voiceCount];
+                voicePos[v] = voicePos[voiceCount];
+                voiceStart[v] = voiceStart[voiceCount];
+            } else
+                v++;
+        }
+
+        for( int i = 0; i < BLOCK_FRAMES; i++ ) {
+            int $s = Math.max( Short.MIN_VALUE, Math.min( Short.MAX_VALUE, mix[i] ) );
+            block[2 * i] = (byte) $s;
+            block[2 * i + 1] = (byte) ($s >> 8);
+        }
+    }
+
+    /**
+     * Decode a sound file and convert it to the {@link #MIX_FORMAT}
+     * @param file - sound file
+     * @return the samples, or null if the file could not be loaded
+     */
+    private static short[] loadSound(final File file) {
+        try {
+            AudioInputStream $in = AudioSystem.getAudioInputStream( file );
+            AudioFormat $format = $in.getFormat();
+
+            // e.g. u-law .au files: decode to 16-bit PCM at the file's own rate
+            AudioFormat $pcm = new AudioFormat( AudioFormat.Encoding.PCM_SIGNED, $format.getSampleRate(), 16,
+                                                $format.getChannels(), $format.getChannels() * 2,
+                                                $format.getSampleRate(), false );
+            if( !$format.matches( $pcm ) ) $in = AudioSystem.getAudioInputStream( $pcm, $in );
+
+            byte[] $data = readAll( $in );
+            $in.close();
+
+            return resample( $data, $pcm.getChannels(), $pcm.getSampleRate() );
+        } catch( UnsupportedAudioFileException uafe ) {
+            System.err.println( "SoundBank" + Msgs.str( "Snd.load" ) + file + " NOT a sound file: " + uafe );
+        } catch( IOException ioe ) {
+            System.err.println( "SoundBank" + Msgs.str( "Snd.load" ) + file + " NOT Found: " + ioe );
+        } catch( IllegalArgumentException iae ) {
+            System.err.println( "SoundBank" + Msgs.str( "Snd.load" ) + file + " CANNOT be decoded: " + iae );
+        }
+        return null;
+    }
+
+    /**
+     * @param pcm - 16-bit signed little-endian samples, channels interleaved
+     * @param channels - number of channels
+     * @param rate - sample rate
+     * @return the sound mixed down to mono and linearly resampled to {@link #MIX_RATE}
+     */
+    private static short[] resample(final byte[] pcm, final int channels, final float rate) {
+        int $frames = pcm.length / (2 * channels);
+        float[] $mono = new float[$frames];
+        for( int f = 0; f < $frames; f++ ) {
+            int $sum = 0;
+            for( int c = 0; c < channels; c++ ) {
+                int i = 2 * (f * channels + c);
+                $sum += (short) ((pcm[i] & 0xFF) | (pcm[i + 1] << 8));
+            }
+            $mono[f] = (float) $sum / channels;
+        }
+
+        if( $frames == 0 ) return new short[0];
+        double $step = (rate > 0) ? rate / MIX_RATE : 1.0;
+        int $len = (int) (($frames - 1) / $step) + 1;
+
+        short[] $out = new short[$len];
+        for( int i = 0; i < $len; i++ ) {
+            double $at = i * $step;
+            int f = (int) $at;
+            double $frac = $at - f;
+            float $next = (f + 1 < $frames) ? $mono[f + 1] : $mono[f];
+            $out[i] = (short) Math.round( $mono[f] + ($next - $mono[f]) * $frac );
+        }
+        return $out;
+    }
+
+    /**
+     * @param in - decoded audio
+     * @return all the bytes of the stream, in whole frames
+     * @throws IOException if the stream cannot be read
+     */
+    private static byte[] readAll(final AudioInputStream in) throws IOException {
+        byte[] $data = new byte[64 * 1024];
+        int $len = 0, $read;
+        while( ($read = in.read( $data, $len, $data.length - $len )) > 0 ) {
+            $len += $read;
+            if( $len == $data.length ) {
+                byte[] $bigger = new byte[$data.length * 2];
+                System.arraycopy( $data, 0, $bigger, 0, $len );
+                $data = $bigger;
+            }
+        }
+        $len -= $len % Math.max( 1, in.getFormat().getFrameSize() );
+
+        byte[] $all = new byte[$len];
+        System.arraycopy( $data, 0, $all, 0, $len );
+        return $all;
+    }
+
+}/* class SoundBank */
@@ -0,0 +1,465 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * SquareTiles.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.font.GlyphVector;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * SquareTiles is an atlas of pre-rendered <code>Square</code> images, one for each type and background, so that painting
+ * a <code>Square</code> is a single <code>drawImage</code><br>
+ * - each tile is drawn from primitives at the device resolution of the screen (HiDPI scale)<br>
+ * - the numerals and marks are laid out once per atlas as <code>GlyphVectors</code>, so no <code>Strings</code> are created
+ * and no text layout is done for each tile<br>
+ * - when the <code>Square</code> size or the font changes, the new atlas is drawn on a background thread while the old
+ * tiles are scaled to the new size, and the owner is told on the EDT when the new atlas is in place, so zooming never
+ * waits for tiles<br>
+ * - the animated explosion ({@link MineField#FATAL}) is NOT a tile: it is drawn over a revealed blank tile
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineField
+ */
+class SquareTiles {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+    //@formatter:off
+    /** backgrounds of a <code>Square</code> */
+    static final int NORMAL = 0,
+                     LIGHTUP = 1, // revealed Square being pressed
+                     SHADED = 2, // hidden Square being pressed: drawn without any contents
+                     NUM_BACKGROUNDS = 3;
+
+    /** tile types are 0 (revealed blank) and 1-8 (numbers) to {@link MineField#BADCLEAR} */
+    static final int NUM_TYPES = MineField.BADCLEAR + 1;
+
+    /** the characters drawn on tiles: numerals 1-8 at index 0-7, then the marks */
+    static final String GLYPHS = "12345678?*X";
+    /** index in {@link #GLYPHS} of each mark */
+    static final int GLYPH_QMARK = 8,
+                     GLYPH_BURST = 9,
+                     GLYPH_BADCLEAR = 10;
+
+    /** draws new atlases in the background, one at a time */
+    private static final ExecutorService builder = Executors.newSingleThreadExecutor( new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable task) {
+            Thread $thread = new Thread( task, "MineSwinger-tiles" );
+            $thread.setDaemon( true );
+            $thread.setPriority( Thread.MIN_PRIORITY );
+            return $thread;
+        }
+    });
+
+    /** length of sides (in pixels at scale 1) of each <code>Square</code> as painted */
+    private int squareLength;
+
+    /** device pixels per pixel of the screen the tiles are drawn for */
+    private double scale;
+
+    /** the atlas being painted from - may still be for an older size or font */
+    private Atlas current;
+
+    /** the latest atlas asked for in the background - null if none */
+    private volatile Atlas wanted;
+
+    /** the background atlas which has been finished but not yet put in place - null if none */
+    private volatile Atlas built;
+
+    /** told on the EDT each time a background atlas is finished */
+    private final Runnable whenReady;
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /**
+     * CONSTRUCTOR
+     * @param side - length of sides (in pixels) of each tile
+     * @param ready - run on the EDT when an atlas drawn in the background is ready for {@link #install}
+     */
+    SquareTiles(final int side, final Runnable ready) {
+        squareLength = side;
+        scale = 1.0;
+        whenReady = ready;
+    }
+
+    /**
+     * change the size of the tiles - the new atlas is asked for at the next {@link #validate}
+     * @param side - new length of sides (in pixels)
+     */
+    void setSquareLength(final int side) {
+        squareLength = side;
+    }
+
+    /**
+     * Make sure the tiles suit the page and font about to be painted - call once before each batch of {@link #draw}s<br>
+     * - a new screen scale drops the tiles at once, but a new size or font only starts a background atlas
+     * @param page - {@link Graphics} page
+     * @param fnt - font for numbers and marks
+     * @return true if the tiles were dropped
+     */
+    boolean validate(final Graphics page, final Font fnt) {
+        double $scale = deviceScale( page );
+        GraphicsConfiguration $gc = (page instanceof Graphics2D) ? ((Graphics2D) page).getDeviceConfiguration() : null;
+
+        if( current == null || $scale != scale ) {
+            scale = $scale;
+            current = new Atlas( squareLength, scale, fnt, $gc );
+            wanted = built = null;
+            return true;
+        }
+
+        if( !current.suits( squareLength, fnt ) ) {
+            Atlas $wanted = wanted;
+            if( $wanted == null || !$wanted.suits( squareLength, fnt ) ) schedule( new Atlas( squareLength, scale, fnt, $gc ) );
+        }
+        return false;
+    }
+
+    /**
+     * draw a whole atlas on the background thread, unless a newer one is asked for first
+     * @param atlas - the new, empty, atlas
+     */
+    private void schedule(final Atlas atlas) {
+        wanted = atlas;
+        builder.execute( new Runnable() {
+            @Override
+            public void run() {
+                if( atlas != wanted ) return; // already replaced
+                atlas.renderAll();
+                if( atlas != wanted ) return;
+
+                built = atlas;
+                SwingUtilities.invokeLater( whenReady );
+            }
+        });
+    }
+
+    /**
+     * Put a finished background atlas in place - call from the <code>Runnable</code> given to the constructor
+     * @return true if the tiles changed, so every <code>Square</code> should be drawn again
+     */
+    boolean install() {
+        Atlas $built = built;
+        if( $built == null || $built != wanted ) return false;
+
+        current = $built;
+        wanted = built = null;
+        return true;
+    }
+
+    /** @return length of sides (in pixels at scale 1) of each <code>Square</code> as painted */
+    int getSquareLength() {
+        return squareLength;
+    }
+
+    /**
+     * @param len - <code>Square</code> size
+     * @return font for the numbers and marks on <code>Squares</code> of that size - the same proportions as the standard
+     *         fonts of {@link MineSwinger}
+     */
+    static Font fontFor(final int len) {
+        return new Font( MineSwinger.strDEFAULT_TYPEFACE, Font.BOLD, Math.max( 6, len / 2 + (len - 12) / 3 ) );
+    }
+
+    /** @return device pixels per pixel of the screen the tiles are drawn for */
+    double getScale() {
+        return scale;
+    }
+
+    /**
+     * Paint one <code>Square</code> - scaled from the previous size's tile while a new atlas is drawn
+     * @param page - {@link Graphics} page
+     * @param xc - x co-ordinate
+     * @param yc - y co-ordinate
+     * @param type - Square type
+     * @param bkgrnd - Square background
+     */
+    void draw(final Graphics page, final int xc, final int yc, final int type, final int bkgrnd) {
+        if( current == null ) validate( page, page.getFont() );
+        page.drawImage( current.get( type, bkgrnd ), xc, yc, squareLength, squareLength, null );
+    }
+
+    /**
+     * @param page - {@link Graphics} page
+     * @return device pixels per pixel of the page's screen, or 1 if it is not a screen
+     */
+    private static double deviceScale(final Graphics page) {
+        if( page instanceof Graphics2D ) {
+            GraphicsConfiguration $gc = ((Graphics2D) page).getDeviceConfiguration();
+            if( $gc != null ) return $gc.getDefaultTransform().getScaleX();
+        }
+        return 1.0;
+    }
+
+    /*
+     *     INNER CLASSES
+     * ===================================================================================================================== */
+
+    /**
+     * One set of tiles, for a single <code>Square</code> size, screen scale and font<br>
+     * - drawn lazily by the painting thread, or all at once by the background thread before it is shared
+     */
+    class Atlas {
+        /** length of sides (in pixels at scale 1) of each tile */
+        private final int side;
+
+        /** device pixels per pixel of the screen */
+        private final double atlasScale;
+
+        /** font used for the numbers and marks */
+        private final Font font;
+
+        /** the screen the tiles are made for - null if not a screen */
+        private final GraphicsConfiguration config;
+
+        /** the tiles, by background and type - each entry is null until first needed */
+        private final BufferedImage[][] tiles = new BufferedImage[NUM_BACKGROUNDS][NUM_TYPES];
+
+        /** laid out {@link #GLYPHS} - each entry is null until first needed */
+        private final GlyphVector[] glyphs = new GlyphVector[GLYPHS.length()];
+
+        /**
+         * CONSTRUCTOR
+         * @param len - length of sides (in pixels) of each tile
+         * @param scl - device pixels per pixel
+         * @param fnt - font for numbers and marks
+         * @param gc - screen configuration, or null
+         */
+        Atlas(final int len, final double scl, final Font fnt, final GraphicsConfiguration gc) {
+            side = len;
+            atlasScale = scl;
+            font = fnt;
+            config = gc;
+        }
+
+        /**
+         * @param len - <code>Square</code> size
+         * @param fnt - font
+         * @return true if this atlas is for the given size and font
+         */
+        boolean suits(final int len, final Font fnt) {
+            return side == len && (font == null ? fnt == null : font.equals( fnt ));
+        }
+
+        /**
+         * @param type - Square type
+         * @param bkgrnd - Square background
+         * @return the tile, drawn now if it was not already
+         */
+        BufferedImage get(final int type, final int bkgrnd) {
+            BufferedImage $tile = tiles[bkgrnd][type];
+            if( $tile == null ) {
+                $tile = render( type, bkgrnd );
+                tiles[bkgrnd][type] = $tile;
+            }
+            return $tile;
+        }
+
+        /** draw every tile */
+        void renderAll() {
+            for( int b = 0; b < NUM_BACKGROUNDS; b++ )
+                for( int t = 0; t < NUM_TYPES; t++ )
+                    get( t, b );
+        }
+
+        /**
+         * Draw a tile from primitives at the device resolution
+         * @param type - Square type
+         * @param bkgrnd - Square background
+         * @return new tile
+         */
+        private BufferedImage render(final int type, final int bkgrnd) {
+            int $px = (int) Math.ceil( side * atlasScale );
+
+            BufferedImage $tile = (config != null) ? config.createCompatibleImage( $px, $px, Transparency.OPAQUE )
+                            : new BufferedImage( $px, $px, BufferedImage.TYPE_INT_RGB );
+
+            Graphics2D $g = $tile.createGraphics();
+            $g.scale( (double) $px / side, (double) $px / side );
+            if( font != null ) $g.setFont( font );
+            paint( $g, type, bkgrnd );
+            $g.dispose();
+
+            return $tile;
+        }
+
+        /**
+         * Draw <code>Squares</code> depending on the content. i.e. different numbers of adjacent mines, revealed or not, flag,
+         * etc.
+         * @param page - {@link Graphics} page, with the tile's upper left corner at (0,0)
+         * @param tp - Square type
+         * @param bkgrnd - Square background
+         */
+        private void paint(final Graphics page, final int tp, final int bkgrnd) {
+            int $type = tp;
+            int $sl = side;
+
+            // background
+            if( bkgrnd == LIGHTUP )
+                page.setColor( MineField.COLOR_BLAZE );
+            else if( bkgrnd == SHADED ) {
+                page.setColor( MineField.COLOR_SHADE );
+                $type = 0;
+            } else
+                page.setColor( MineField.COLOR_LIGHT );
+
+            page.fillRect( 0, 0, $sl, $sl );
+
+            // Square outline
+            page.setColor( MineField.COLOR_MEDIUM );
+            page.drawLine( 0, $sl - 1, $sl, $sl - 1 ); // bottom
+            page.drawLine( $sl - 1, 0, $sl - 1, $sl ); // right
+            page.setColor( MineField.COLOR_DARK );
+            page.drawLine( 0, 0, $sl, 0 ); // top
+            page.drawLine( 0, 0, 0, $sl ); // left
+
+            // interior details depending on type
+            switch( $type ) {
+            // 1 - 8 = # of adjacent mines: set color
+            case 1:
+                page.setColor( MineField.COLOR_NUM1 );
+                break;
+            case 2:
+                page.setColor( MineField.COLOR_NUM2 );
+                break;
+            case 3:
+                page.setColor( MineField.COLOR_NUM3 );
+                break;
+            case 4:
+                page.setColor( MineField.COLOR_NUM4 );
+                break;
+            case 5:
+                page.setColor( MineField.COLOR_NUM5 );
+                break;
+            case 6:
+                page.setColor( MineField.COLOR_NUM6 );
+                break;
+            case 7:
+                page.setColor( MineField.COLOR_NUM7 );
+                break;
+            case 8:
+                page.setColor( MineField.COLOR_NUM8 );
+                break;
+
+            case MineField.MINE:
+                drawSquare( page );
+                drawMine( page );
+                break;
+
+            case MineField.FLAG:
+                drawSquare( page );
+                page.setColor( MineField.COLOR_FLAG_BKGRND );
+                page.fillOval( $sl / 8, $sl / 8, 3 * $sl / 4, 3 * $sl / 4 );
+                page.setColor( MineField.COLOR_FLAG_BELT );
+                page.fillRect( $sl / 8, 3 * $sl / 8, 3 * $sl / 4, $sl / 4 );
+                page.setColor( MineField.COLOR_FLAG_BURST );
+                drawGlyph( page, GLYPH_BURST, 3 * $sl / 8, 7 * $sl / 8 );
+                break;
+
+            case MineField.QMARK:
+                drawSquare( page );
+                page.setColor( MineField.COLOR_DARKEST );
+                drawGlyph( page, GLYPH_QMARK, $sl / 4, 3 * $sl / 4 );
+                break;
+
+            case MineField.BLANK:
+                drawSquare( page );
+                break;
+
+            case MineField.BADCLEAR:
+                drawSquare( page );
+                drawMine( page );
+                page.setColor( MineField.COLOR_BOLD );
+                // draw an 'X' over the erroneous mine placement
+                drawGlyph( page, GLYPH_BADCLEAR, $sl / 4, 3 * $sl / 4 );
+                break;
+
+            default: // revealed blank
+            }// switch( type )
+
+            // 1 - 8 = # of adjacent mines: draw numeral
+            if( $type < MineField.MINE && $type > 0 ) drawGlyph( page, $type - 1, $sl / 4, 3 * $sl / 4 );
+        }
+
+        /**
+         * Draw one of the {@link #GLYPHS}, laying it out the first time it is needed
+         * @param page - {@link Graphics} page
+         * @param index - index in {@link #GLYPHS}
+         * @param xc - x co-ordinate of the baseline
+         * @param yc - y co-ordinate of the baseline
+         */
+        private void drawGlyph(final Graphics page, final int index, final int xc, final int yc) {
+            if( !(page instanceof Graphics2D) ) {
+                page.drawString( GLYPHS.substring( index, index + 1 ), xc, yc );
+                return;
+            }
+            Graphics2D $g = (Graphics2D) page;
+            GlyphVector $glyph = glyphs[index];
+            if( $glyph == null ) {
+                $glyph = $g.getFont().createGlyphVector( $g.getFontRenderContext(), new char[] { GLYPHS.charAt( index ) } );
+                glyphs[index] = $glyph;
+            }
+            $g.drawGlyphVector( $glyph, xc, yc );
+        }
+
+        /**
+         * Draw a basic unrevealed <code>Square</code> with edge hilites
+         * @param page - Graphics object reference
+         */
+        private void drawSquare(final Graphics page) {
+            int $sl = side;
+
+            page.setColor( MineField.COLOR_MEDIUM );
+            page.fillRect( 0, 0, $sl, $sl );
+
+            page.setColor( MineField.COLOR_DARKEST );
+            page.drawLine( 0, $sl - 1, $sl, $sl - 1 ); // bottom
+            page.drawLine( $sl - 1, 0, $sl - 1, $sl ); // right
+
+            page.setColor( MineField.COLOR_LIGHT );
+            page.drawLine( 0, 0, $sl - 1, 0 ); // top
+            page.drawLine( 0, 0, 0, $sl - 1 ); // left
+        }
+
+        /**
+         * Draw a mine over a basic <code>Square</code>
+         * @param page - Graphics object reference
+         */
+        private void drawMine(final Graphics page) {
+            int $sl = side;
+
+            page.setColor( MineField.COLOR_DARK );
+            page.fillOval( $sl / 8, $sl / 8, 3 * $sl / 4, 3 * $sl / 4 );
+            page.setColor( MineField.COLOR_DARKEST );
+            page.fillOval( $sl / 8 + 1, $sl / 8 + 1, 3 * $sl / 4 - 2, 3 * $sl / 4 - 2 );
+            page.setColor( MineField.COLOR_DARK );
+            page.fillOval( $sl / 3 - 2, $sl / 3 - 2, $sl / 8 + 4, $sl / 8 + 4 );
+            page.setColor( MineField.COLOR_MEDIUM );
+            page.fillOval( $sl / 3 - 1, $sl / 3 - 1, $sl / 8 + 2, $sl / 8 + 2 );
+            page.setColor( MineField.COLOR_BRIGHT );
+            page.fillOval( $sl / 3, $sl / 3, $sl / 8, $sl / 8 );
+        }
+
+    }/* inner class Atlas */
+
+}/* class SquareTiles */
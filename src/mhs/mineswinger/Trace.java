@@ -0,0 +1,254 @@
+/* ******************************************************************************
+ *
+ *  Mark Sattolo (epistemik@gmail.com)
+ * -----------------------------------------------
+ *
+ * Trace.java
+ * Created on Oct 18, 2026
+ *
+ ********************************************************************************/
+
+package mhs.mineswinger;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Trace records game events as fixed-size binary records in a ring buffer allocated once, and prints them only when asked
+ * to by {@link #dump(PrintStream)}<br>
+ * - each event belongs to a category, and only the categories switched on with {@link #setCategories(int)} are recorded:
+ * the categories can be changed at any time, from any thread<br>
+ * - an event in a category which is off costs one test and allocates nothing; one which is on costs a clock read and four
+ * array stores - so call sites pass only numbers, and test {@link #on(int)} first if an argument costs anything to work
+ * out<br>
+ * - any thread may record: once the ring is full the oldest records are written over, and a record written during a dump
+ * may be printed half old and half new
+ *
+ * @author MARK SATTOLO (based on code by Mats Antell)
+ * @see MineSwinger#DEBUG_LEVEL
+ */
+final class Trace {
+    /*
+     *     FIELDS
+     * ===================================================================================================================== */
+    //@formatter:off
+    /** the categories, one bit each */
+    static final int UI = 0x01, // menu and button actions
+                     GAME = 0x02, // new games, lost games
+                     INPUT = 0x04, // mouse presses and releases
+                     ENGINE = 0x08, // moves on the engine thread
+                     PAINT = 0x10, // paints of the field
+                     CLOCK = 0x20, // timer ticks
+                     SOUND = 0x40, // sounds played
+                     ALL = 0x7F;
+
+    /** names of the categories, in bit order - as used by {@link #parse(String)} */
+    static final String[] CATEGORY_NAMES = { "ui", "game", "input", "engine", "paint", "clock", "sound" };
+
+    /** the events */
+    static final int LEVEL = 0,
+                     ACTION = 1,
+                     NEW_GAME = 2,
+                     GAME_OVER = 3,
+                     QMARKS_CLEARED = 4,
+                     PRESS = 5,
+                     RELEASE = 6,
+                     MOVE = 7,
+                     PAINT_FIELD = 8,
+                     PAINT_AREA = 9,
+                     EXPLODE_FRAME = 10,
+                     GAME_TICK = 11,
+                     EXPLODE_TICK = 12,
+                     SOUND_PLAY = 13;
+
+    /** name of each event */
+    private static final String[] EVENT_NAMES = { "level", "action", "newGame", "gameOver", "qmarksCleared", "press",
+                                                  "release", "move", "paint", "paintArea", "explodeFrame", "gameTick",
+                                                  "explodeTick", "sound" };
+
+    /** category of each event */
+    private static final int[] EVENT_CATEGORIES = { UI, UI, GAME, GAME, GAME, INPUT, INPUT, ENGINE, PAINT, PAINT, PAINT,
+                                                    CLOCK, CLOCK, SOUND };
+
+    /** names of the (up to) three arguments of each event - null for an argument not used */
+    private static final String[][] ARG_NAMES = {
+        { "debug", null, null },
+        { "command", null, null },
+        { "mines", "density_ppm", "game" },
+        { "x", "y", "exploded" },
+        { null, null, null },
+        { "x", "y", "modifiers" },
+        { "x", "y", "modifiers" },
+        { "command", "nanos", "revealed" },
+        { "nanos", "pixels", "drawn" },
+        { "left", "top", "rects" },
+        { "frame", null, null },
+        { "msec", null, null },
+        { "frame", null, null },
+        { "track", null, null }
+    };
+
+    /** records in the ring: a power of 2 */
+    static final int RECORD_BITS = 14,
+                     RECORDS = 1 << RECORD_BITS,
+                     RECORD_MASK = RECORDS - 1;
+
+    /**
+     * longs per record: time; event, thread and third argument; first argument; second argument
+     * @see #record(int, long, long, int)
+     */
+    static final int RECORD_LONGS = 4;
+
+    /** the records */
+    private static final long[] ring = new long[RECORDS * RECORD_LONGS];
+
+    /** number of records ever started - the next record goes in slot (next % RECORDS) */
+    private static final AtomicLong next = new AtomicLong();
+
+    /** times are recorded from here */
+    private static final long origin = System.nanoTime();
+
+    /** the categories being recorded - from the system property <code>mineswinger.trace</code> to begin with */
+    private static volatile int categories = parse( System.getProperty( "mineswinger.trace", "" ) );
+
+    /** strings recorded by {@link #label(String)}, and the number given to each */
+    private static final List<String> labels = new ArrayList<String>();
+    private static final Map<String, Integer> labelNumbers = new HashMap<String, Integer>();
+    //@formatter:on
+    /*
+     *     METHODS
+     * ===================================================================================================================== */
+
+    /** only static methods */
+    private Trace() {}
+
+    //@formatter:off
+    /** @return true if any of <var>category</var> is being recorded */
+    static boolean on(final int category) { return (categories & category) != 0;}
+
+    /** @return the categories being recorded */
+    static int getCategories() { return categories;}
+
+    /** @param mask - the categories to record from now on */
+    static void setCategories(final int mask) { categories = mask & ALL;}
+    //@formatter:on
+
+    /**
+     * @param debug - a <code>DEBUG_LEVEL</code>
+     * @return the categories the old debug level printed
+     */
+    static int forLevel(final int debug) {
+        if( debug <= 0 ) return 0;
+        if( debug == 1 ) return UI | GAME;
+        if( debug == 2 ) return UI | GAME | INPUT | ENGINE | SOUND;
+        return ALL;
+    }
+
+    /**
+     * @param names - category names separated by commas, e.g. "input,paint" - or "all"
+     * @return the categories named
+     */
+    static int parse(final String names) {
+        int $mask = 0;
+        for( String $name : names.split( "," ) ) {
+            String $key = $name.trim().toLowerCase();
+            if( $key.equals( "all" ) ) $mask = ALL;
+            for( int c = 0; c < CATEGORY_NAMES.length; c++ )
+                if( CATEGORY_NAMES[c].equals( $key ) ) $mask |= 1 << c;
+        }
+        return $mask;
+    }
+
+    /**
+     * Give a number to a string, to record it as an argument - allocates the first time a string is seen, so call only
+     * after checking {@link #on(int)}
+     * @param text - string to record
+     * @return its number
+     */
+    static synchronized int label(final String text) {
+        Integer $number = labelNumbers.get( text );
+        if( $number == null ) {
+            $number = labels.size();
+            labels.add( text );
+            labelNumbers.put( text, $number );
+        }
+        return $number;
+    }
+
+    /** @see #record(int, long, long, int) */
+    static void event(final int event) {
+        if( (categories & EVENT_CATEGORIES[event]) != 0 ) record( event, 0, 0, 0 );
+    }
+
+    /** @see #record(int, long, long, int) */
+    static void event(final int event, final long a) {
+        if( (categories & EVENT_CATEGORIES[event]) != 0 ) record( event, a, 0, 0 );
+    }
+
+    /** @see #record(int, long, long, int) */
+    static void event(final int event, final long a, final long b) {
+        if( (categories & EVENT_CATEGORIES[event]) != 0 ) record( event, a, b, 0 );
+    }
+
+    /** @see #record(int, long, long, int) */
+    static void event(final int event, final long a, final long b, final int c) {
+        if( (categories & EVENT_CATEGORIES[event]) != 0 ) record( event, a, b, c );
+    }
+
+    /**
+     * Write one record into the next slot of the ring
+     * @param event - one of the events
+     * @param a - first argument
+     * @param b - second argument
+     * @param c - third argument
+     */
+    private static void record(final int event, final long a, final long b, final int c) {
+        int i = (int) (next.getAndIncrement() & RECORD_MASK) * RECORD_LONGS;
+        ring[i] = System.nanoTime() - origin;
+        ring[i + 1] = ((long) event << 48) | ((Thread.currentThread().getId() & 0xFFFF) << 32) | (c & 0xFFFFFFFFL);
+        ring[i + 2] = a;
+        ring[i + 3] = b;
+    }
+
+    /**
+     * Print the records in the ring, oldest first - one line each, with the time in msec and the recording thread
+     * @param out - where to print
+     */
+    static void dump(final PrintStream out) {
+        long $end = next.get();
+        long $start = Math.max( 0, $end - RECORDS );
+        out.println( "Trace: last " + ($end - $start) + " of " + $end + " events" );
+
+        StringBuilder $line = new StringBuilder( 128 );
+        for( long s = $start; s < $end; s++ ) {
+            int i = (int) (s & RECORD_MASK) * RECORD_LONGS;
+            long $head = ring[i + 1];
+            int $event = (int) ($head >>> 48);
+            if( $event >= EVENT_NAMES.length ) continue; // not written yet
+
+            long[] $args = { ring[i + 2], ring[i + 3], (int) $head };
+            $line.setLength( 0 );
+            $line.append( String.format( "%12.3f ms  t%-3d %-14s", ring[i] / 1e6, ($head >>> 32) & 0xFFFF,
+                                         EVENT_NAMES[$event] ) );
+            for( int n = 0; n < 3; n++ ) {
+                if( ARG_NAMES[$event][n] == null ) continue;
+                $line.append( ' ' ).append( ARG_NAMES[$event][n] ).append( '=' );
+                if( $event == ACTION && n == 0 )
+                    $line.append( labelText( (int) $args[0] ) );
+                else
+                    $line.append( $args[n] );
+            }
+            out.println( $line );
+        }
+    }
+
+    /** @return the string given number <var>number</var> by {@link #label(String)} */
+    private static synchronized String labelText(final int number) {
+        return (number >= 0 && number < labels.size()) ? labels.get( number ) : "#" + number;
+    }
+
+}/* class Trace */